@@ -16,19 +16,19 @@
 package rx.util.async;
 
 import rx.*;
-import rx.Scheduler.Worker;
 import rx.functions.*;
 import rx.schedulers.Schedulers;
-import rx.subjects.AsyncSubject;
 import rx.subjects.PublishSubject;
 import rx.subjects.Subject;
-import rx.subscriptions.SerialSubscription;
 import rx.util.async.functions.*;
 import rx.util.async.operators.*;
 
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -111,26 +111,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-start">RxJava Wiki: start()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229036.aspx">MSDN: Observable.Start</a>
      */
-    public static <R> Observable<R> startCallable(final Callable<? extends R> func, final Scheduler scheduler) {
-        final AsyncSubject<R> subject = AsyncSubject.create();
-        final Worker inner = scheduler.createWorker();
-        inner.schedule(new Action0() {
-            @Override
-            public void call() {
-                R result;
-                try {
-                    result = func.call();
-                } catch (Throwable t) {
-                    subject.onError(t);
-                    return;
-                } finally {
-                    inner.unsubscribe();
-                }
-                subject.onNext(result);
-                subject.onCompleted();
-            }
-        });
-        return subject;
+    public static <R> Observable<R> startCallable(Callable<? extends R> func, Scheduler scheduler) {
+        return InvokeTask.start(func, 0, null, scheduler);
     }
     
     /**
@@ -749,6 +731,84 @@ public final class Async {
         return toAsyncThrowing(func, Schedulers.computation());
     }
     
+    /**
+     * Convert a synchronous function call with a primitive int argument into an asynchronous function call
+     * through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> IntFunc1<Observable<R>> toAsyncInt(IntFunc1<? extends R> func) {
+        return toAsyncThrowingInt(func, Schedulers.computation());
+    }
+    
+    /**
+     * Convert a synchronous throwing function call with a primitive int argument into an asynchronous function
+     * call through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> IntFunc1<Observable<R>> toAsyncThrowingInt(ThrowingIntFunc1<? extends R> func) {
+        return toAsyncThrowingInt(func, Schedulers.computation());
+    }
+    
+    /**
+     * Convert a synchronous function call with a primitive long argument into an asynchronous function call
+     * through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> LongFunc1<Observable<R>> toAsyncLong(LongFunc1<? extends R> func) {
+        return toAsyncThrowingLong(func, Schedulers.computation());
+    }
+    
+    /**
+     * Convert a synchronous throwing function call with a primitive long argument into an asynchronous function
+     * call through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> LongFunc1<Observable<R>> toAsyncThrowingLong(ThrowingLongFunc1<? extends R> func) {
+        return toAsyncThrowingLong(func, Schedulers.computation());
+    }
+    
+    /**
+     * Convert a synchronous function call with a primitive double argument into an asynchronous function call
+     * through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> DoubleFunc1<Observable<R>> toAsyncDouble(DoubleFunc1<? extends R> func) {
+        return toAsyncThrowingDouble(func, Schedulers.computation());
+    }
+    
+    /**
+     * Convert a synchronous throwing function call with a primitive double argument into an asynchronous function
+     * call through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> DoubleFunc1<Observable<R>> toAsyncThrowingDouble(ThrowingDoubleFunc1<? extends R> func) {
+        return toAsyncThrowingDouble(func, Schedulers.computation());
+    }
+    
     /**
      * Convert a synchronous action call into an asynchronous function call through an Observable.
      * <p>
@@ -776,13 +836,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh211792.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <R> Func0<Observable<R>> toAsync(final Func0<? extends R> func, final Scheduler scheduler) {
-        return new Func0<Observable<R>>() {
-            @Override
-            public Observable<R> call() {
-                return startCallable(func, scheduler);
-            }
-        };
+    public static <R> Func0<Observable<R>> toAsync(Func0<? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 0, scheduler);
     }
     
     /**
@@ -797,13 +852,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh211792.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <R> Func0<Observable<R>> toAsyncThrowing(final Callable<? extends R> func, final Scheduler scheduler) {
-        return new Func0<Observable<R>>() {
-            @Override
-            public Observable<R> call() {
-                return startCallable(func, scheduler);
-            }
-        };
+    public static <R> Func0<Observable<R>> toAsyncThrowing(Callable<? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 0, scheduler);
     }
     
     /**
@@ -835,31 +885,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229731.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, R> Func1<T1, Observable<R>> toAsync(final Func1<? super T1, ? extends R> func, final Scheduler scheduler) {
-        return new Func1<T1, Observable<R>>() {
-            @Override
-            public Observable<R> call(final T1 t1) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                final Worker inner = scheduler.createWorker();
-                inner.schedule(new Action0() {
-                    @Override
-                    public void call() {
-                        R result;
-                        try {
-                            result = func.call(t1);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        } finally {
-                            inner.unsubscribe();
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
-                    }
-                });
-                return subject;
-            }
-        };
+    public static <T1, R> Func1<T1, Observable<R>> toAsync(Func1<? super T1, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 1, scheduler);
     }
     
     /**
@@ -875,13 +902,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229731.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, R> Func1<T1, Observable<R>> toAsyncThrowing(final ThrowingFunc1<? super T1, ? extends R> func, final Scheduler scheduler) {
-        return new Func1<T1, Observable<R>>() {
-            @Override
-            public Observable<R> call(T1 t1) {
-                return startCallable(ThrowingFunctions.toCallable(func, t1), scheduler);
-            }
-        };
+    public static <T1, R> Func1<T1, Observable<R>> toAsyncThrowing(ThrowingFunc1<? super T1, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 1, scheduler);
     }
     
     /**
@@ -915,31 +937,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229327.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, R> Func2<T1, T2, Observable<R>> toAsync(final Func2<? super T1, ? super T2, ? extends R> func, final Scheduler scheduler) {
-        return new Func2<T1, T2, Observable<R>>() {
-            @Override
-            public Observable<R> call(final T1 t1, final T2 t2) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                final Worker inner = scheduler.createWorker();
-                inner.schedule(new Action0() {
-                    @Override
-                    public void call() {
-                        R result;
-                        try {
-                            result = func.call(t1, t2);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        } finally {
-                            inner.unsubscribe();
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
-                    }
-                });
-                return subject;
-            }
-        };
+    public static <T1, T2, R> Func2<T1, T2, Observable<R>> toAsync(Func2<? super T1, ? super T2, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 2, scheduler);
     }
     
     /**
@@ -956,13 +955,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229731.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, R> Func2<T1, T2, Observable<R>> toAsyncThrowing(final ThrowingFunc2<? super T1, ? super T2, ? extends R> func, final Scheduler scheduler) {
-        return new Func2<T1, T2, Observable<R>>() {
-            @Override
-            public Observable<R> call(T1 t1, T2 t2) {
-                return startCallable(ThrowingFunctions.toCallable(func, t1, t2), scheduler);
-            }
-        };
+    public static <T1, T2, R> Func2<T1, T2, Observable<R>> toAsyncThrowing(ThrowingFunc2<? super T1, ? super T2, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 2, scheduler);
     }
     
     /**
@@ -998,31 +992,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229287.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, R> Func3<T1, T2, T3, Observable<R>> toAsync(final Func3<? super T1, ? super T2, ? super T3, ? extends R> func, final Scheduler scheduler) {
-        return new Func3<T1, T2, T3, Observable<R>>() {
-            @Override
-            public Observable<R> call(final T1 t1, final T2 t2, final T3 t3) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                final Worker inner = scheduler.createWorker();
-                inner.schedule(new Action0() {
-                    @Override
-                    public void call() {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        } finally {
-                            inner.unsubscribe();
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
-                    }
-                });
-                return subject;
-            }
-        };
+    public static <T1, T2, T3, R> Func3<T1, T2, T3, Observable<R>> toAsync(Func3<? super T1, ? super T2, ? super T3, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 3, scheduler);
     }
     
     /**
@@ -1040,13 +1011,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229287.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, R> Func3<T1, T2, T3, Observable<R>> toAsyncThrowing(final ThrowingFunc3<? super T1, ? super T2, ? super T3, ? extends R> func, final Scheduler scheduler) {
-        return new Func3<T1, T2, T3, Observable<R>>() {
-            @Override
-            public Observable<R> call(T1 t1, T2 t2, T3 t3) {
-                return startCallable(ThrowingFunctions.toCallable(func, t1, t2, t3), scheduler);
-            }
-        };
+    public static <T1, T2, T3, R> Func3<T1, T2, T3, Observable<R>> toAsyncThrowing(ThrowingFunc3<? super T1, ? super T2, ? super T3, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 3, scheduler);
     }
     
     /**
@@ -1084,31 +1050,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229560.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, R> Func4<T1, T2, T3, T4, Observable<R>> toAsync(final Func4<? super T1, ? super T2, ? super T3, ? super T4, ? extends R> func, final Scheduler scheduler) {
-        return new Func4<T1, T2, T3, T4, Observable<R>>() {
-            @Override
-            public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                final Worker inner = scheduler.createWorker();
-                inner.schedule(new Action0() {
-                    @Override
-                    public void call() {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        } finally {
-                            inner.unsubscribe();
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
-                    }
-                });
-                return subject;
-            }
-        };
+    public static <T1, T2, T3, T4, R> Func4<T1, T2, T3, T4, Observable<R>> toAsync(Func4<? super T1, ? super T2, ? super T3, ? super T4, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 4, scheduler);
     }
     
     /**
@@ -1127,13 +1070,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229560.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, R> Func4<T1, T2, T3, T4, Observable<R>> toAsyncThrowing(final ThrowingFunc4<? super T1, ? super T2, ? super T3, ? super T4, ? extends R> func, final Scheduler scheduler) {
-        return new Func4<T1, T2, T3, T4, Observable<R>>() {
-            @Override
-            public Observable<R> call(T1 t1, T2 t2, T3 t3, T4 t4) {
-                return startCallable(ThrowingFunctions.toCallable(func, t1, t2, t3, t4), scheduler);
-            }
-        };
+    public static <T1, T2, T3, T4, R> Func4<T1, T2, T3, T4, Observable<R>> toAsyncThrowing(ThrowingFunc4<? super T1, ? super T2, ? super T3, ? super T4, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 4, scheduler);
     }
     
     /**
@@ -1173,31 +1111,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229606.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, T5, R> Func5<T1, T2, T3, T4, T5, Observable<R>> toAsync(final Func5<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? extends R> func, final Scheduler scheduler) {
-        return new Func5<T1, T2, T3, T4, T5, Observable<R>>() {
-            @Override
-            public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4, final T5 t5) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                final Worker inner = scheduler.createWorker();
-                inner.schedule(new Action0() {
-                    @Override
-                    public void call() {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4, t5);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        } finally {
-                            inner.unsubscribe();
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
-                    }
-                });
-                return subject;
-            }
-        };
+    public static <T1, T2, T3, T4, T5, R> Func5<T1, T2, T3, T4, T5, Observable<R>> toAsync(Func5<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 5, scheduler);
     }
     
     /**
@@ -1216,13 +1131,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229571.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, T5, R> Func5<T1, T2, T3, T4, T5, Observable<R>> toAsyncThrowing(final ThrowingFunc5<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? extends R> func, final Scheduler scheduler) {
-        return new Func5<T1, T2, T3, T4, T5, Observable<R>>() {
-            @Override
-            public Observable<R> call(T1 t1, T2 t2, T3 t3, T4 t4, T5 t5) {
-                return startCallable(ThrowingFunctions.toCallable(func, t1, t2, t3, t4, t5), scheduler);
-            }
-        };
+    public static <T1, T2, T3, T4, T5, R> Func5<T1, T2, T3, T4, T5, Observable<R>> toAsyncThrowing(ThrowingFunc5<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 5, scheduler);
     }
     
     /**
@@ -1264,31 +1174,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229630.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, T5, T6, R> Func6<T1, T2, T3, T4, T5, T6, Observable<R>> toAsync(final Func6<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? extends R> func, final Scheduler scheduler) {
-        return new Func6<T1, T2, T3, T4, T5, T6, Observable<R>>() {
-            @Override
-            public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4, final T5 t5, final T6 t6) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                final Worker inner = scheduler.createWorker();
-                inner.schedule(new Action0() {
-                    @Override
-                    public void call() {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4, t5, t6);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        } finally {
-                            inner.unsubscribe();
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
-                    }
-                });
-                return subject;
-            }
-        };
+    public static <T1, T2, T3, T4, T5, T6, R> Func6<T1, T2, T3, T4, T5, T6, Observable<R>> toAsync(Func6<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 6, scheduler);
     }
     
     /**
@@ -1308,13 +1195,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229716.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, T5, T6, R> Func6<T1, T2, T3, T4, T5, T6, Observable<R>> toAsyncThrowing(final ThrowingFunc6<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? extends R> func, final Scheduler scheduler) {
-        return new Func6<T1, T2, T3, T4, T5, T6, Observable<R>>() {
-            @Override
-            public Observable<R> call(T1 t1, T2 t2, T3 t3, T4 t4, T5 t5, T6 t6) {
-                return startCallable(ThrowingFunctions.toCallable(func, t1, t2, t3, t4, t5, t6), scheduler);
-            }
-        };
+    public static <T1, T2, T3, T4, T5, T6, R> Func6<T1, T2, T3, T4, T5, T6, Observable<R>> toAsyncThrowing(ThrowingFunc6<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 6, scheduler);
     }
     
     /**
@@ -1358,31 +1240,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229794.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, T5, T6, T7, R> Func7<T1, T2, T3, T4, T5, T6, T7, Observable<R>> toAsync(final Func7<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? extends R> func, final Scheduler scheduler) {
-        return new Func7<T1, T2, T3, T4, T5, T6, T7, Observable<R>>() {
-            @Override
-            public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4, final T5 t5, final T6 t6, final T7 t7) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                final Worker inner = scheduler.createWorker();
-                inner.schedule(new Action0() {
-                    @Override
-                    public void call() {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4, t5, t6, t7);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        } finally {
-                            inner.unsubscribe();
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
-                    }
-                });
-                return subject;
-            }
-        };
+    public static <T1, T2, T3, T4, T5, T6, T7, R> Func7<T1, T2, T3, T4, T5, T6, T7, Observable<R>> toAsync(Func7<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 7, scheduler);
     }
     
     /**
@@ -1403,13 +1262,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229773.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, T5, T6, T7, R> Func7<T1, T2, T3, T4, T5, T6, T7, Observable<R>> toAsyncThrowing(final ThrowingFunc7<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? extends R> func, final Scheduler scheduler) {
-        return new Func7<T1, T2, T3, T4, T5, T6, T7, Observable<R>>() {
-            @Override
-            public Observable<R> call(T1 t1, T2 t2, T3 t3, T4 t4, T5 t5, T6 t6, T7 t7) {
-                return startCallable(ThrowingFunctions.toCallable(func, t1, t2, t3, t4, t5, t6, t7), scheduler);
-            }
-        };
+    public static <T1, T2, T3, T4, T5, T6, T7, R> Func7<T1, T2, T3, T4, T5, T6, T7, Observable<R>> toAsyncThrowing(ThrowingFunc7<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 7, scheduler);
     }
     
     /**
@@ -1455,31 +1309,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh228956.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, T5, T6, T7, T8, R> Func8<T1, T2, T3, T4, T5, T6, T7, T8, Observable<R>> toAsync(final Func8<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? super T8, ? extends R> func, final Scheduler scheduler) {
-        return new Func8<T1, T2, T3, T4, T5, T6, T7, T8, Observable<R>>() {
-            @Override
-            public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4, final T5 t5, final T6 t6, final T7 t7, final T8 t8) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                final Worker inner = scheduler.createWorker();
-                inner.schedule(new Action0() {
-                    @Override
-                    public void call() {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4, t5, t6, t7, t8);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        } finally {
-                            inner.unsubscribe();
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
-                    }
-                });
-                return subject;
-            }
-        };
+    public static <T1, T2, T3, T4, T5, T6, T7, T8, R> Func8<T1, T2, T3, T4, T5, T6, T7, T8, Observable<R>> toAsync(Func8<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? super T8, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 8, scheduler);
     }
     
     /**
@@ -1502,13 +1333,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh228956.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, T5, T6, T7, T8, R> Func8<T1, T2, T3, T4, T5, T6, T7, T8, Observable<R>> toAsyncThrowing(final ThrowingFunc8<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? super T8, ? extends R> func, final Scheduler scheduler) {
-        return new Func8<T1, T2, T3, T4, T5, T6, T7, T8, Observable<R>>() {
-            @Override
-            public Observable<R> call(T1 t1, T2 t2, T3 t3, T4 t4, T5 t5, T6 t6, T7 t7, T8 t8) {
-                return startCallable(ThrowingFunctions.toCallable(func, t1, t2, t3, t4, t5, t6, t7, t8), scheduler);
-            }
-        };
+    public static <T1, T2, T3, T4, T5, T6, T7, T8, R> Func8<T1, T2, T3, T4, T5, T6, T7, T8, Observable<R>> toAsyncThrowing(ThrowingFunc8<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? super T8, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 8, scheduler);
     }
     
     /**
@@ -1556,31 +1382,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229008.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, T5, T6, T7, T8, T9, R> Func9<T1, T2, T3, T4, T5, T6, T7, T8, T9, Observable<R>> toAsync(final Func9<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? super T8, ? super T9, ? extends R> func, final Scheduler scheduler) {
-        return new Func9<T1, T2, T3, T4, T5, T6, T7, T8, T9, Observable<R>>() {
-            @Override
-            public Observable<R> call(final T1 t1, final T2 t2, final T3 t3, final T4 t4, final T5 t5, final T6 t6, final T7 t7, final T8 t8, final T9 t9) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                final Worker inner = scheduler.createWorker();
-                inner.schedule(new Action0() {
-                    @Override
-                    public void call() {
-                        R result;
-                        try {
-                            result = func.call(t1, t2, t3, t4, t5, t6, t7, t8, t9);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        } finally {
-                            inner.unsubscribe();
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
-                    }
-                });
-                return subject;
-            }
-        };
+    public static <T1, T2, T3, T4, T5, T6, T7, T8, T9, R> Func9<T1, T2, T3, T4, T5, T6, T7, T8, T9, Observable<R>> toAsync(Func9<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? super T8, ? super T9, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 9, scheduler);
     }
     
     /**
@@ -1604,13 +1407,8 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      * @see <a href="http://msdn.microsoft.com/en-us/library/hh229008.aspx">MSDN: Observable.ToAsync</a>
      */
-    public static <T1, T2, T3, T4, T5, T6, T7, T8, T9, R> Func9<T1, T2, T3, T4, T5, T6, T7, T8, T9, Observable<R>> toAsyncThrowing(final ThrowingFunc9<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? super T8, ? super T9, ? extends R> func, final Scheduler scheduler) {
-        return new Func9<T1, T2, T3, T4, T5, T6, T7, T8, T9, Observable<R>>() {
-            @Override
-            public Observable<R> call(T1 t1, T2 t2, T3 t3, T4 t4, T5 t5, T6 t6, T7 t7, T8 t8, T9 t9) {
-                return startCallable(ThrowingFunctions.toCallable(func, t1, t2, t3, t4, t5, t6, t7, t8, t9), scheduler);
-            }
-        };
+    public static <T1, T2, T3, T4, T5, T6, T7, T8, T9, R> Func9<T1, T2, T3, T4, T5, T6, T7, T8, T9, Observable<R>> toAsyncThrowing(ThrowingFunc9<? super T1, ? super T2, ? super T3, ? super T4, ? super T5, ? super T6, ? super T7, ? super T8, ? super T9, ? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, 9, scheduler);
     }
     
     /**
@@ -1638,31 +1436,8 @@ public final class Async {
      * @return a function that returns an Observable that executes the {@code func} and emits its returned value
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      */
-    public static <R> FuncN<Observable<R>> toAsync(final FuncN<? extends R> func, final Scheduler scheduler) {
-        return new FuncN<Observable<R>>() {
-            @Override
-            public Observable<R> call(final Object... args) {
-                final AsyncSubject<R> subject = AsyncSubject.create();
-                final Worker inner = scheduler.createWorker();
-                inner.schedule(new Action0() {
-                    @Override
-                    public void call() {
-                        R result;
-                        try {
-                            result = func.call(args);
-                        } catch (Throwable t) {
-                            subject.onError(t);
-                            return;
-                        } finally {
-                            inner.unsubscribe();
-                        }
-                        subject.onNext(result);
-                        subject.onCompleted();
-                    }
-                });
-                return subject;
-            }
-        };
+    public static <R> FuncN<Observable<R>> toAsync(FuncN<? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, InvokeTask.ARITY_N, scheduler);
     }
     
     /**
@@ -1676,11 +1451,105 @@ public final class Async {
      * @return a function that returns an Observable that executes the {@code func} and emits its returned value
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
      */
-    public static <R> FuncN<Observable<R>> toAsyncThrowing(final ThrowingFuncN<? extends R> func, final Scheduler scheduler) {
-        return new FuncN<Observable<R>>() {
+    public static <R> FuncN<Observable<R>> toAsyncThrowing(ThrowingFuncN<? extends R> func, Scheduler scheduler) {
+        return ToAsyncFunction.create(func, InvokeTask.ARITY_N, scheduler);
+    }
+    
+    /**
+     * Convert a synchronous function call with a primitive int argument into an asynchronous function call
+     * through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @param scheduler the Scheduler used to call the {@code func}
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> IntFunc1<Observable<R>> toAsyncInt(IntFunc1<? extends R> func, Scheduler scheduler) {
+        return toAsyncThrowingInt(func, scheduler);
+    }
+    
+    /**
+     * Convert a synchronous throwing function call with a primitive int argument into an asynchronous function
+     * call through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @param scheduler the Scheduler used to call the {@code func}
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> IntFunc1<Observable<R>> toAsyncThrowingInt(final ThrowingIntFunc1<? extends R> func, final Scheduler scheduler) {
+        return new IntFunc1<Observable<R>>() {
+            @Override
+            public Observable<R> call(int t1) {
+                return startCallable(ThrowingFunctions.toCallableInt(func, t1), scheduler);
+            }
+        };
+    }
+    
+    /**
+     * Convert a synchronous function call with a primitive long argument into an asynchronous function call
+     * through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @param scheduler the Scheduler used to call the {@code func}
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> LongFunc1<Observable<R>> toAsyncLong(LongFunc1<? extends R> func, Scheduler scheduler) {
+        return toAsyncThrowingLong(func, scheduler);
+    }
+    
+    /**
+     * Convert a synchronous throwing function call with a primitive long argument into an asynchronous function
+     * call through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @param scheduler the Scheduler used to call the {@code func}
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> LongFunc1<Observable<R>> toAsyncThrowingLong(final ThrowingLongFunc1<? extends R> func, final Scheduler scheduler) {
+        return new LongFunc1<Observable<R>>() {
+            @Override
+            public Observable<R> call(long t1) {
+                return startCallable(ThrowingFunctions.toCallableLong(func, t1), scheduler);
+            }
+        };
+    }
+    
+    /**
+     * Convert a synchronous function call with a primitive double argument into an asynchronous function call
+     * through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @param scheduler the Scheduler used to call the {@code func}
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> DoubleFunc1<Observable<R>> toAsyncDouble(DoubleFunc1<? extends R> func, Scheduler scheduler) {
+        return toAsyncThrowingDouble(func, scheduler);
+    }
+    
+    /**
+     * Convert a synchronous throwing function call with a primitive double argument into an asynchronous function
+     * call through an Observable without boxing the argument.
+     *
+     * @param <R> the result type
+     * @param func the function to convert
+     * @param scheduler the Scheduler used to call the {@code func}
+     * @return a function that returns an Observable that executes the {@code func} and emits its returned value
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-toasync-or-asyncaction-or-asyncfunc">RxJava Wiki: toAsync()</a>
+     */
+    public static <R> DoubleFunc1<Observable<R>> toAsyncThrowingDouble(final ThrowingDoubleFunc1<? extends R> func, final Scheduler scheduler) {
+        return new DoubleFunc1<Observable<R>>() {
             @Override
-            public Observable<R> call(Object... args) {
-                return startCallable(ThrowingFunctions.toCallable(func, args), scheduler);
+            public Observable<R> call(double t1) {
+                return startCallable(ThrowingFunctions.toCallableDouble(func, t1), scheduler);
             }
         };
     }
@@ -1784,191 +1653,910 @@ public final class Async {
     }
     
     /**
-     * Returns an Observable that starts the specified asynchronous factory function whenever a new observer
-     * subscribes.
+     * Invokes the asynchronous function immediately, surfacing the result through an Observable and cancels
+     * the Future if the Observer unsubscribes before it completes.
      * <p>
      * <em>Important note</em> subscribing to the resulting Observable blocks until the future completes.
      * <p>
-     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/deferFuture.png" alt="">
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/startFuture.png" alt="">
      *
      * @param <T> the result type
-     * @param observableFactoryAsync the asynchronous function to start for each observer
-     * @return the Observable emitting items produced by the asynchronous observer produced by the factory
-     * @see #deferFuture(rx.functions.Func0, rx.Scheduler)
-     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-deferfuture">RxJava Wiki: deferFuture()</a>
+     * @param functionAsync the asynchronous function to run
+     * @param mayInterruptIfRunning the value to pass to {@link Future#cancel(boolean)} on unsubscription
+     * @return an Observable that surfaces the result of the future
+     * @see #startFuture(rx.functions.Func0, boolean, rx.Scheduler)
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-startfuture">RxJava Wiki: startFuture()</a>
      */
-    public static <T> Observable<T> deferFuture(Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync) {
-        return OperatorDeferFuture.deferFuture(observableFactoryAsync);
+    public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync,
+        boolean mayInterruptIfRunning) {
+        return OperatorStartFuture.startFuture(functionAsync, mayInterruptIfRunning);
     }
     
     /**
-     * Returns an Observable that starts the specified asynchronous factory function whenever a new observer
-     * subscribes.
+     * Invokes the asynchronous function immediately, surfacing the result through an Observable and waits on
+     * the specified Scheduler; cancels the Future if the Observer unsubscribes before it completes.
      * <p>
-     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/deferFuture.s.png" alt="">
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/startFuture.s.png" alt="">
      *
      * @param <T> the result type
-     * @param observableFactoryAsync the asynchronous function to start for each observer
+     * @param functionAsync the asynchronous function to run
+     * @param mayInterruptIfRunning the value to pass to {@link Future#cancel(boolean)} on unsubscription
      * @param scheduler the Scheduler where the completion of the Future is awaited
-     * @return the Observable emitting items produced by the asynchronous observer produced by the factory
-     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-deferfuture">RxJava Wiki: deferFuture()</a>
+     * @return an Observable that surfaces the result of the future
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-startfuture">RxJava Wiki: startFuture()</a>
      */
-    public static <T> Observable<T> deferFuture(
-        Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+    public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync,
+        boolean mayInterruptIfRunning,
         Scheduler scheduler) {
-        return OperatorDeferFuture.deferFuture(observableFactoryAsync, scheduler);
+        return OperatorStartFuture.startFuture(functionAsync, mayInterruptIfRunning, scheduler);
     }
     
     /**
-     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
-     * or error through a Future.
+     * Invokes the asynchronous function immediately, surfacing the result through an Observable which fails
+     * with a {@link java.util.concurrent.TimeoutException} and cancels the Future if it doesn't complete
+     * within the given time.
      * <p>
-     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
-     * or the task is scheduled on an Executor.
+     * The timeout is measured from the call of this method, not from the subscription as with
+     * {@code deferFuture}. It is watched by a shared timer thread, and the subscribing thread stops waiting for
+     * the Future once it elapses.
      * <p>
-     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.png" alt="">
+     * <em>Important note</em> subscribing to the resulting Observable blocks until the future completes, is
+     * cancelled or the timeout elapses.
      *
-     * @param <T> the source value type
-     * @param source the source Observable
-     * @param onNext the action to call with each emitted element
-     * @return the Future representing the entire for-each operation
-     * @see #forEachFuture(rx.Observable, rx.functions.Action1, rx.Scheduler)
-     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
+     * @param <T> the result type
+     * @param functionAsync the asynchronous function to run
+     * @param timeout the time after which the Future is considered timed out
+     * @param unit the time unit of the timeout
+     * @return an Observable that surfaces the result of the future
+     * @see #startFuture(rx.functions.Func0, long, java.util.concurrent.TimeUnit, rx.Scheduler)
      */
-    public static <T> FutureTask<Void> forEachFuture(
-        Observable<? extends T> source,
-        Action1<? super T> onNext) {
-        return OperatorForEachFuture.forEachFuture(source, onNext);
+    public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync,
+        long timeout, TimeUnit unit) {
+        return OperatorStartFuture.startFuture(functionAsync, timeout, unit, true);
     }
     
-    
     /**
-     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
-     * or error through a Future.
-     * <p>
-     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
-     * or the task is scheduled on an Executor.
+     * Invokes the asynchronous function immediately, surfacing the result through an Observable and waits on
+     * the specified Scheduler; the Observable fails with a {@link java.util.concurrent.TimeoutException} and
+     * cancels the Future if it doesn't complete within the given time.
      * <p>
-     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.png" alt="">
+     * The timeout is measured from the call of this method, not from the subscription as with
+     * {@code deferFuture}, and is watched by a shared timer thread.
      *
-     * @param <T> the source value type
-     * @param source the source Observable
-     * @param onNext the action to call with each emitted element
-     * @param onError the action to call when an exception is emitted
-     * @return the Future representing the entire for-each operation
-     * @see #forEachFuture(rx.Observable, rx.functions.Action1, rx.functions.Action1, rx.Scheduler)
-     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
+     * @param <T> the result type
+     * @param functionAsync the asynchronous function to run
+     * @param timeout the time after which the Future is considered timed out
+     * @param unit the time unit of the timeout
+     * @param scheduler the Scheduler where the completion of the Future is awaited
+     * @return an Observable that surfaces the result of the future
      */
-    public static <T> FutureTask<Void> forEachFuture(
-        Observable<? extends T> source,
-        Action1<? super T> onNext,
-        Action1<? super Throwable> onError) {
+    public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync,
+        long timeout, TimeUnit unit,
+        Scheduler scheduler) {
+        return OperatorStartFuture.startFuture(functionAsync, timeout, unit, true, scheduler);
+    }
+    
+    /**
+     * Invokes the asynchronous function immediately, surfacing the result through an Observable and waits on
+     * the specified Scheduler; the Observable fails with a {@link java.util.concurrent.TimeoutException} if
+     * the Future doesn't complete within the given time.
+     * <p>
+     * The timeout is measured from the call of this method, not from the subscription as with
+     * {@code deferFuture}, and is watched by a shared timer thread.
+     *
+     * @param <T> the result type
+     * @param functionAsync the asynchronous function to run
+     * @param timeout the time after which the Future is considered timed out
+     * @param unit the time unit of the timeout
+     * @param cancelOnTimeout cancel the Future if it doesn't complete in time?
+     * @param scheduler the Scheduler where the completion of the Future is awaited
+     * @return an Observable that surfaces the result of the future
+     */
+    public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync,
+        long timeout, TimeUnit unit, boolean cancelOnTimeout,
+        Scheduler scheduler) {
+        return OperatorStartFuture.startFuture(functionAsync, timeout, unit, cancelOnTimeout, scheduler);
+    }
+    
+    /**
+     * Invokes the asynchronous functions emitted by the source, keeping at most the given number of their
+     * Futures pending at once, and surfaces their results through an Observable in completion order.
+     * <p>
+     * The next function is requested from the source, and thus invoked, only after a pending Future has
+     * completed and its value has been requested by the downstream. The completion of the Futures is
+     * awaited on the {@link Schedulers#io()} Scheduler.
+     *
+     * @param <T> the result type
+     * @param functionsAsync the source of the asynchronous functions to run
+     * @param maxOutstanding the maximum number of pending Futures
+     * @return an Observable that surfaces the results of the futures
+     * @see #startFutures(rx.Observable, int, rx.Scheduler)
+     */
+    public static <T> Observable<T> startFutures(
+        Observable<? extends Func0<? extends Future<? extends T>>> functionsAsync,
+        int maxOutstanding) {
+        return OperatorStartFuture.startFutures(functionsAsync, maxOutstanding, Schedulers.io());
+    }
+    
+    /**
+     * Invokes the asynchronous functions emitted by the source, keeping at most the given number of their
+     * Futures pending at once, and surfaces their results through an Observable in completion order.
+     * <p>
+     * The next function is requested from the source, and thus invoked, only after a pending Future has
+     * completed and its value has been requested by the downstream.
+     *
+     * @param <T> the result type
+     * @param functionsAsync the source of the asynchronous functions to run
+     * @param maxOutstanding the maximum number of pending Futures
+     * @param scheduler the Scheduler where the completion of the Futures is awaited
+     * @return an Observable that surfaces the results of the futures
+     */
+    public static <T> Observable<T> startFutures(
+        Observable<? extends Func0<? extends Future<? extends T>>> functionsAsync,
+        int maxOutstanding,
+        Scheduler scheduler) {
+        return OperatorStartFuture.startFutures(functionsAsync, maxOutstanding, scheduler);
+    }
+    
+    /**
+     * Returns an Observable that starts the specified asynchronous factory function whenever a new observer
+     * subscribes.
+     * <p>
+     * <em>Important note</em> subscribing to the resulting Observable blocks until the future completes.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/deferFuture.png" alt="">
+     *
+     * @param <T> the result type
+     * @param observableFactoryAsync the asynchronous function to start for each observer
+     * @return the Observable emitting items produced by the asynchronous observer produced by the factory
+     * @see #deferFuture(rx.functions.Func0, rx.Scheduler)
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-deferfuture">RxJava Wiki: deferFuture()</a>
+     */
+    public static <T> Observable<T> deferFuture(Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync) {
+        return OperatorDeferFuture.deferFuture(observableFactoryAsync);
+    }
+    
+    /**
+     * Returns an Observable that starts the specified asynchronous factory function whenever a new observer
+     * subscribes.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/deferFuture.s.png" alt="">
+     *
+     * @param <T> the result type
+     * @param observableFactoryAsync the asynchronous function to start for each observer
+     * @param scheduler the Scheduler where the completion of the Future is awaited
+     * @return the Observable emitting items produced by the asynchronous observer produced by the factory
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-deferfuture">RxJava Wiki: deferFuture()</a>
+     */
+    public static <T> Observable<T> deferFuture(
+        Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+        Scheduler scheduler) {
+        return OperatorDeferFuture.deferFuture(observableFactoryAsync, scheduler);
+    }
+    
+    /**
+     * Returns an Observable that starts the specified asynchronous factory function whenever a new observer
+     * subscribes and cancels the Future if the observer unsubscribes before it completes.
+     * <p>
+     * <em>Important note</em> subscribing to the resulting Observable blocks until the future completes.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/deferFuture.png" alt="">
+     *
+     * @param <T> the result type
+     * @param observableFactoryAsync the asynchronous function to start for each observer
+     * @param mayInterruptIfRunning the value to pass to {@link Future#cancel(boolean)} on unsubscription
+     * @return the Observable emitting items produced by the asynchronous observer produced by the factory
+     * @see #deferFuture(rx.functions.Func0, boolean, rx.Scheduler)
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-deferfuture">RxJava Wiki: deferFuture()</a>
+     */
+    public static <T> Observable<T> deferFuture(
+        Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+        boolean mayInterruptIfRunning) {
+        return OperatorDeferFuture.deferFuture(observableFactoryAsync, mayInterruptIfRunning);
+    }
+    
+    /**
+     * Returns an Observable that starts the specified asynchronous factory function whenever a new observer
+     * subscribes and cancels the Future if the observer unsubscribes before it completes.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/deferFuture.s.png" alt="">
+     *
+     * @param <T> the result type
+     * @param observableFactoryAsync the asynchronous function to start for each observer
+     * @param mayInterruptIfRunning the value to pass to {@link Future#cancel(boolean)} on unsubscription
+     * @param scheduler the Scheduler where the completion of the Future is awaited
+     * @return the Observable emitting items produced by the asynchronous observer produced by the factory
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-deferfuture">RxJava Wiki: deferFuture()</a>
+     */
+    public static <T> Observable<T> deferFuture(
+        Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+        boolean mayInterruptIfRunning,
+        Scheduler scheduler) {
+        return OperatorDeferFuture.deferFuture(observableFactoryAsync, mayInterruptIfRunning, scheduler);
+    }
+    
+    /**
+     * Returns an Observable that starts the specified asynchronous factory function whenever a new observer
+     * subscribes; the Observable fails with a {@link java.util.concurrent.TimeoutException} and cancels the
+     * Future if it doesn't produce the Observable within the given time after the subscription.
+     * <p>
+     * The timeout is measured from each subscription, not from the call of this method as with
+     * {@code startFuture}. It is watched by a shared timer thread, and the subscribing thread stops waiting for
+     * the Future once it elapses.
+     * <p>
+     * <em>Important note</em> subscribing to the resulting Observable blocks until the future completes, is
+     * cancelled or the timeout elapses.
+     *
+     * @param <T> the result type
+     * @param observableFactoryAsync the asynchronous function to start for each observer
+     * @param timeout the time after which the Future is considered timed out
+     * @param unit the time unit of the timeout
+     * @return the Observable emitting items produced by the asynchronous observer produced by the factory
+     * @see #deferFuture(rx.functions.Func0, long, java.util.concurrent.TimeUnit, rx.Scheduler)
+     */
+    public static <T> Observable<T> deferFuture(
+        Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+        long timeout, TimeUnit unit) {
+        return OperatorDeferFuture.deferFuture(observableFactoryAsync, timeout, unit, true, null);
+    }
+    
+    /**
+     * Returns an Observable that starts the specified asynchronous factory function whenever a new observer
+     * subscribes and waits on the specified Scheduler; the Observable fails with a
+     * {@link java.util.concurrent.TimeoutException} and cancels the Future if it doesn't produce the
+     * Observable within the given time after the subscription.     * <p>
+     * The timeout is measured from each subscription, not from the call of this method as with
+     * {@code startFuture}, and is watched by a shared timer thread.
+     *
+     * @param <T> the result type
+     * @param observableFactoryAsync the asynchronous function to start for each observer
+     * @param timeout the time after which the Future is considered timed out
+     * @param unit the time unit of the timeout
+     * @param scheduler the Scheduler where the completion of the Future is awaited
+     * @return the Observable emitting items produced by the asynchronous observer produced by the factory
+     */
+    public static <T> Observable<T> deferFuture(
+        Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+        long timeout, TimeUnit unit,
+        Scheduler scheduler) {
+        return OperatorDeferFuture.deferFuture(observableFactoryAsync, timeout, unit, true, scheduler);
+    }
+    
+    /**
+     * Returns an Observable that starts the specified asynchronous factory function whenever a new observer
+     * subscribes and waits on the specified Scheduler; the Observable fails with a
+     * {@link java.util.concurrent.TimeoutException} if the Future doesn't produce the Observable within the
+     * given time after the subscription.     * <p>
+     * The timeout is measured from each subscription, not from the call of this method as with
+     * {@code startFuture}, and is watched by a shared timer thread.
+     *
+     * @param <T> the result type
+     * @param observableFactoryAsync the asynchronous function to start for each observer
+     * @param timeout the time after which the Future is considered timed out
+     * @param unit the time unit of the timeout
+     * @param cancelOnTimeout cancel the Future if it doesn't complete in time?
+     * @param scheduler the Scheduler where the completion of the Future is awaited
+     * @return the Observable emitting items produced by the asynchronous observer produced by the factory
+     */
+    public static <T> Observable<T> deferFuture(
+        Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+        long timeout, TimeUnit unit, boolean cancelOnTimeout,
+        Scheduler scheduler) {
+        return OperatorDeferFuture.deferFuture(observableFactoryAsync, timeout, unit, cancelOnTimeout, scheduler);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
+     * or error through a Future.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.png" alt="">
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @return the Future representing the entire for-each operation
+     * @see #forEachFuture(rx.Observable, rx.functions.Action1, rx.Scheduler)
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
+     */
+    public static <T> FutureTask<Void> forEachFuture(
+        Observable<? extends T> source,
+        Action1<? super T> onNext) {
+        return OperatorForEachFuture.forEachFuture(source, onNext);
+    }
+    
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
+     * or error through a Future.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.png" alt="">
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @return the Future representing the entire for-each operation
+     * @see #forEachFuture(rx.Observable, rx.functions.Action1, rx.functions.Action1, rx.Scheduler)
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
+     */
+    public static <T> FutureTask<Void> forEachFuture(
+        Observable<? extends T> source,
+        Action1<? super T> onNext,
+        Action1<? super Throwable> onError) {
         return OperatorForEachFuture.forEachFuture(source, onNext, onError);
     }
     
     
     /**
-     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
-     * or error through a Future.
+     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
+     * or error through a Future.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.png" alt="">
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @return the Future representing the entire for-each operation
+     * @see #forEachFuture(rx.Observable, rx.functions.Action1, rx.functions.Action1, rx.functions.Action0, rx.Scheduler)
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
+     */
+    public static <T> FutureTask<Void> forEachFuture(
+        Observable<? extends T> source,
+        Action1<? super T> onNext,
+        Action1<? super Throwable> onError,
+        Action0 onCompleted) {
+        return OperatorForEachFuture.forEachFuture(source, onNext, onError, onCompleted);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
+     * or error through a Future, requesting the items from the source in batches.
+     * <p>
+     * {@code prefetch} items are requested upfront and the consumed amount is requested again once 75% of
+     * them have been processed, so a backpressured source is consumed in constant memory.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @param prefetch the number of items to request upfront
+     * @return the Future representing the entire for-each operation
+     * @throws IllegalArgumentException if {@code prefetch} is not positive
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
+     */
+    public static <T> FutureTask<Void> forEachFuture(
+        Observable<? extends T> source,
+        Action1<? super T> onNext,
+        Action1<? super Throwable> onError,
+        Action0 onCompleted,
+        int prefetch) {
+        return OperatorForEachFuture.forEachFuture(source, onNext, onError, onCompleted, prefetch);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
+     * or error through a Future which also reports the progress and the total weight of the processed items.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @param weigher the function computing the weight of each element, for example its size in bytes, or
+     *            null to only count the elements
+     * @return the Future representing the entire for-each operation, which reports its progress
+     * @see ForEachFutureTask#getWeight()
+     */
+    public static <T> ForEachFutureTask forEachFuture(
+        Observable<? extends T> source,
+        Action1<? super T> onNext,
+        Action1<? super Throwable> onError,
+        Action0 onCompleted,
+        Func1<? super T, Long> weigher) {
+        return OperatorForEachFuture.forEachFuture(source, onNext, onError, onCompleted, weigher);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
+     * or error through a Future which also reports the progress of the operation.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @return the Future representing the entire for-each operation, which reports its progress
+     * @see ForEachFutureTask#getItemCount()
+     * @see ForEachFutureTask#getRate()
+     */
+    public static <T> ForEachFutureTask forEachFutureWithProgress(
+        Observable<? extends T> source,
+        Action1<? super T> onNext) {
+        return OperatorForEachFuture.forEachFuture(source, onNext);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callbacks for each emitted item or terminal event, and surfaces
+     * the completion or error through a Future which also reports the progress of the operation.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @return the Future representing the entire for-each operation, which reports its progress
+     * @see ForEachFutureTask#getItemCount()
+     * @see ForEachFutureTask#getRate()
+     */
+    public static <T> ForEachFutureTask forEachFutureWithProgress(
+        Observable<? extends T> source,
+        Action1<? super T> onNext,
+        Action1<? super Throwable> onError,
+        Action0 onCompleted) {
+        return OperatorForEachFuture.forEachFuture(source, onNext, onError, onCompleted);
+    }
+    
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
+     * or error through a Future, running the callbacks on the given Scheduler.
+     * <p>
+     * The returned task is completed by the terminal event of the source, so it doesn't have to be run and
+     * no thread of the Scheduler waits for the termination while the source is idle.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.s.png" alt="">
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param scheduler the Scheduler where the callbacks are run
+     * @return the Future representing the entire for-each operation
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
+     */
+    public static <T> FutureTask<Void> forEachFuture(
+            Observable<? extends T> source,
+            Action1<? super T> onNext,
+            Scheduler scheduler) {
+        return OperatorForEachFuture.forEachFuture(source, onNext, Functionals.emptyThrowable(), Functionals.empty(), scheduler);
+    }
+    
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
+     * or error through a Future, running the callbacks on the given Scheduler.
+     * <p>
+     * The returned task is completed by the terminal event of the source, so it doesn't have to be run and
+     * no thread of the Scheduler waits for the termination while the source is idle.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.s.png" alt="">
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param scheduler the Scheduler where the callbacks are run
+     * @return the Future representing the entire for-each operation
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
+     */
+    public static <T> FutureTask<Void> forEachFuture(
+            Observable<? extends T> source,
+            Action1<? super T> onNext,
+            Action1<? super Throwable> onError,
+            Scheduler scheduler) {
+        return OperatorForEachFuture.forEachFuture(source, onNext, onError, Functionals.empty(), scheduler);
+    }
+    
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
+     * or error through a Future, running the callbacks on the given Scheduler.
+     * <p>
+     * The returned task is completed by the terminal event of the source, so it doesn't have to be run and
+     * no thread of the Scheduler waits for the termination while the source is idle.
+     * <p>
+     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.s.png" alt="">
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @param scheduler the Scheduler where the callbacks are run
+     * @return the Future representing the entire for-each operation
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
+     */
+    public static <T> FutureTask<Void> forEachFuture(
+            Observable<? extends T> source,
+            Action1<? super T> onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted,
+            Scheduler scheduler) {
+        return OperatorForEachFuture.forEachFuture(source, onNext, onError, onCompleted, scheduler);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item along with its index, and surfaces the
+     * completion or error through a Future.
+     * <p>
+     * The index starts at zero and is a primitive long, so it is neither boxed nor limited to 2<sup>31</sup> items.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element and its index
+     * @return the Future representing the entire for-each operation
+     */
+    public static <T> ForEachFutureTask forEachFutureIndexed(
+            Observable<? extends T> source,
+            IndexedAction1<? super T> onNext) {
+        return OperatorForEachFuture.forEachFutureIndexed(source, onNext, Functionals.emptyThrowable(), Functionals.empty());
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item along with its index, and surfaces the
+     * completion or error through a Future.
+     * <p>
+     * The index starts at zero and is a primitive long, so it is neither boxed nor limited to 2<sup>31</sup> items.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element and its index
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @return the Future representing the entire for-each operation
+     */
+    public static <T> ForEachFutureTask forEachFutureIndexed(
+            Observable<? extends T> source,
+            IndexedAction1<? super T> onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted) {
+        return OperatorForEachFuture.forEachFutureIndexed(source, onNext, onError, onCompleted);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item as a primitive, and surfaces the
+     * completion or error through a Future.
+     * <p>
+     * The items are unboxed once before the primitive callback is called.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     *
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @return the Future representing the entire for-each operation
+     */
+    public static ForEachFutureTask forEachInt(
+            Observable<Integer> source,
+            IntAction1 onNext) {
+        return OperatorForEachFuture.forEachInt(source, onNext, Functionals.emptyThrowable(), Functionals.empty());
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item as a primitive, and surfaces the
+     * completion or error through a Future.
+     * <p>
+     * The items are unboxed once before the primitive callback is called.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     *
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @return the Future representing the entire for-each operation
+     */
+    public static ForEachFutureTask forEachInt(
+            Observable<Integer> source,
+            IntAction1 onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted) {
+        return OperatorForEachFuture.forEachInt(source, onNext, onError, onCompleted);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item as a primitive, and surfaces the
+     * completion or error through a Future.
+     * <p>
+     * The items are unboxed once before the primitive callback is called.
      * <p>
      * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
      * or the task is scheduled on an Executor.
+     *
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @return the Future representing the entire for-each operation
+     */
+    public static ForEachFutureTask forEachLong(
+            Observable<Long> source,
+            LongAction1 onNext) {
+        return OperatorForEachFuture.forEachLong(source, onNext, Functionals.emptyThrowable(), Functionals.empty());
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item as a primitive, and surfaces the
+     * completion or error through a Future.
      * <p>
-     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.png" alt="">
+     * The items are unboxed once before the primitive callback is called.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
      *
-     * @param <T> the source value type
      * @param source the source Observable
      * @param onNext the action to call with each emitted element
      * @param onError the action to call when an exception is emitted
      * @param onCompleted the action to call when the source completes
      * @return the Future representing the entire for-each operation
-     * @see #forEachFuture(rx.Observable, rx.functions.Action1, rx.functions.Action1, rx.functions.Action0, rx.Scheduler)
-     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
      */
-    public static <T> FutureTask<Void> forEachFuture(
-        Observable<? extends T> source,
-        Action1<? super T> onNext,
-        Action1<? super Throwable> onError,
-        Action0 onCompleted) {
-        return OperatorForEachFuture.forEachFuture(source, onNext, onError, onCompleted);
+    public static ForEachFutureTask forEachLong(
+            Observable<Long> source,
+            LongAction1 onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted) {
+        return OperatorForEachFuture.forEachLong(source, onNext, onError, onCompleted);
     }
     
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item as a primitive, and surfaces the
+     * completion or error through a Future.
+     * <p>
+     * The items are unboxed once before the primitive callback is called.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     *
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @return the Future representing the entire for-each operation
+     */
+    public static ForEachFutureTask forEachDouble(
+            Observable<Double> source,
+            DoubleAction1 onNext) {
+        return OperatorForEachFuture.forEachDouble(source, onNext, Functionals.emptyThrowable(), Functionals.empty());
+    }
     
     /**
-     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
-     * or error through a Future, scheduled on the given scheduler.
+     * Subscribes to the given source and calls the callback for each emitted item as a primitive, and surfaces the
+     * completion or error through a Future.
      * <p>
-     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.s.png" alt="">
+     * The items are unboxed once before the primitive callback is called.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
      *
-     * @param <T> the source value type
      * @param source the source Observable
      * @param onNext the action to call with each emitted element
-     * @param scheduler the Scheduler where the task will await the termination of the for-each
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
      * @return the Future representing the entire for-each operation
-     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
      */
-    public static <T> FutureTask<Void> forEachFuture(
+    public static ForEachFutureTask forEachDouble(
+            Observable<Double> source,
+            DoubleAction1 onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted) {
+        return OperatorForEachFuture.forEachDouble(source, onNext, onError, onCompleted);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the action with chunks of the emitted items, and surfaces the
+     * completion or error through a Future.
+     * <p>
+     * A chunk is emitted once it holds {@code maxSize} items or its first item has waited {@code maxWait},
+     * whichever comes first; the remaining items are emitted when the source completes. The chunks are
+     * delivered serially into the same list, which is cleared once the action returns, so the action must copy
+     * the items it wants to retain. The Future fails with the first exception thrown by the action.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param maxSize the maximum number of items in a chunk
+     * @param maxWait the maximum time the first item of a chunk waits before the chunk is emitted
+     * @param unit the unit of {@code maxWait}
+     * @param onChunk the action to call with each chunk
+     * @return the Future representing the entire for-each operation
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     * @see #forEachBatchFuture(rx.Observable, int, long, java.util.concurrent.TimeUnit, rx.functions.Action1, rx.Scheduler)
+     */
+    public static <T> FutureTask<Void> forEachBatchFuture(
             Observable<? extends T> source,
-            Action1<? super T> onNext,
+            int maxSize,
+            long maxWait,
+            TimeUnit unit,
+            Action1<? super List<T>> onChunk) {
+        return OperatorForEachFuture.forEachBatchFuture(source, maxSize, maxWait, unit, onChunk, Schedulers.computation());
+    }
+    
+    /**
+     * Subscribes to the given source and calls the action with chunks of the emitted items, and surfaces the
+     * completion or error through a Future.
+     * <p>
+     * A chunk is emitted once it holds {@code maxSize} items or its first item has waited {@code maxWait},
+     * whichever comes first; the remaining items are emitted when the source completes. The chunks are
+     * delivered serially into the same list, which is cleared once the action returns, so the action must copy
+     * the items it wants to retain. The Future fails with the first exception thrown by the action.
+     * <p>
+     * <em>Important note:</em> The returned task blocks indefinitely unless the {@code run()} method is called
+     * or the task is scheduled on an Executor.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param maxSize the maximum number of items in a chunk
+     * @param maxWait the maximum time the first item of a chunk waits before the chunk is emitted
+     * @param unit the unit of {@code maxWait}
+     * @param onChunk the action to call with each chunk
+     * @param scheduler the Scheduler where the chunks timing out are emitted
+     * @return the Future representing the entire for-each operation
+     * @throws IllegalArgumentException if {@code maxSize} is not positive
+     */
+    public static <T> FutureTask<Void> forEachBatchFuture(
+            Observable<? extends T> source,
+            int maxSize,
+            long maxWait,
+            TimeUnit unit,
+            Action1<? super List<T>> onChunk,
+            Scheduler scheduler) {
+        return OperatorForEachFuture.forEachBatchFuture(source, maxSize, maxWait, unit, onChunk, scheduler);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the action for each emitted item on one of {@code parallelism}
+     * workers of the given Scheduler, and surfaces the completion or error through a Future.
+     * <p>
+     * The items with equal keys are handled by the same worker in the order they were emitted. The source is
+     * requested only as much as the workers can buffer, so a fast source is slowed down when the workers lag
+     * behind. The returned Future completes once all the workers have handled all their items, or fails with
+     * the first error of the source or the action, dropping the items not yet handled. Cancelling the Future
+     * unsubscribes from the source and releases the workers.
+     *
+     * @param <T> the source value type
+     * @param <K> the key type
+     * @param source the source Observable
+     * @param action the action to call with each emitted element
+     * @param parallelism the number of workers
+     * @param keySelector the function returning the key of an element
+     * @param scheduler the Scheduler providing the workers
+     * @return the Future representing the entire for-each operation
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    public static <T, K> Future<Void> forEachFutureParallel(
+            Observable<? extends T> source,
+            Action1<? super T> action,
+            int parallelism,
+            Func1<? super T, ? extends K> keySelector,
             Scheduler scheduler) {
-        FutureTask<Void> task = OperatorForEachFuture.forEachFuture(source, onNext);
-        final Worker inner = scheduler.createWorker();
-        inner.schedule(Functionals.fromRunnable(task, inner));
-        return task;
+        return OperatorForEachFutureParallel.forEachFutureParallel(source, action, parallelism, keySelector, scheduler);
     }
     
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
+     * or error through a Future which is completed directly by the terminal event of the source.
+     * <p>
+     * Unlike {@link #forEachFuture(rx.Observable, rx.functions.Action1)}, the returned Future doesn't need to
+     * be run or scheduled and no thread waits for the source to terminate. Cancelling the Future unsubscribes
+     * from the source.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @return the Future representing the entire for-each operation
+     */
+    public static <T> Future<Void> forEachFutureDirect(
+            Observable<? extends T> source,
+            Action1<? super T> onNext) {
+        return OperatorToFuture.forEach(source, onNext, Functionals.emptyThrowable(), Functionals.empty());
+    }
     
     /**
      * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
-     * or error through a Future, scheduled on the given Scheduler.
+     * or error through a Future which is completed directly by the terminal event of the source.
      * <p>
-     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.s.png" alt="">
+     * Cancelling the returned Future unsubscribes from the source.
      *
      * @param <T> the source value type
      * @param source the source Observable
      * @param onNext the action to call with each emitted element
      * @param onError the action to call when an exception is emitted
-     * @param scheduler the Scheduler where the task will await the termination of the for-each
      * @return the Future representing the entire for-each operation
-     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
      */
-    public static <T> FutureTask<Void> forEachFuture(
+    public static <T> Future<Void> forEachFutureDirect(
             Observable<? extends T> source,
             Action1<? super T> onNext,
-            Action1<? super Throwable> onError,
-            Scheduler scheduler) {
-        FutureTask<Void> task = OperatorForEachFuture.forEachFuture(source, onNext, onError);
-        final Worker inner = scheduler.createWorker();
-        inner.schedule(Functionals.fromRunnable(task, inner));
-        return task;
+            Action1<? super Throwable> onError) {
+        return OperatorToFuture.forEach(source, onNext, onError, Functionals.empty());
     }
     
-    
     /**
      * Subscribes to the given source and calls the callback for each emitted item, and surfaces the completion
-     * or error through a Future, scheduled on the given Scheduler.
+     * or error through a Future which is completed directly by the terminal event of the source.
      * <p>
-     * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/forEachFuture.s.png" alt="">
+     * Cancelling the returned Future unsubscribes from the source.
      *
      * @param <T> the source value type
      * @param source the source Observable
      * @param onNext the action to call with each emitted element
      * @param onError the action to call when an exception is emitted
      * @param onCompleted the action to call when the source completes
-     * @param scheduler the Scheduler where the task will await the termination of the for-each
      * @return the Future representing the entire for-each operation
-     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-foreachfuture">RxJava Wiki: forEachFuture()</a>
      */
-    public static <T> FutureTask<Void> forEachFuture(
+    public static <T> Future<Void> forEachFutureDirect(
             Observable<? extends T> source,
             Action1<? super T> onNext,
             Action1<? super Throwable> onError,
-            Action0 onCompleted,
-            Scheduler scheduler) {
-        FutureTask<Void> task = OperatorForEachFuture.forEachFuture(source, onNext, onError, onCompleted);
-        final Worker inner = scheduler.createWorker();
-        inner.schedule(Functionals.fromRunnable(task, inner));
-        return task;
+            Action0 onCompleted) {
+        return OperatorToFuture.forEach(source, onNext, onError, onCompleted);
+    }
+    
+    /**
+     * Subscribes to the given source and returns a Future which is completed with the last value emitted
+     * by the source, or fails with a {@link java.util.NoSuchElementException} if the source is empty.
+     * <p>
+     * No thread waits for the source to terminate; cancelling the Future unsubscribes from the source.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @return the Future completed with the last value of the source
+     */
+    public static <T> Future<T> toFuture(Observable<? extends T> source) {
+        return OperatorToFuture.toFuture(source);
+    }
+    
+    /**
+     * Subscribes to the given source and returns a Future which is completed with the single value emitted
+     * by the source, or fails if the source emits zero or more than one value.
+     * <p>
+     * No thread waits for the source to terminate; cancelling the Future unsubscribes from the source.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @return the Future completed with the single value of the source
+     */
+    public static <T> Future<T> toFutureSingle(Observable<? extends T> source) {
+        return OperatorToFuture.toFutureSingle(source);
+    }
+    
+    /**
+     * Subscribes to the given source and returns a Future which is completed with the list of all values
+     * emitted by the source.
+     * <p>
+     * No thread waits for the source to terminate; cancelling the Future unsubscribes from the source.
+     *
+     * @param <T> the source value type
+     * @param source the source Observable
+     * @return the Future completed with the values of the source
+     */
+    public static <T> Future<List<T>> toFutureList(Observable<? extends T> source) {
+        return OperatorToFuture.toFutureList(source);
     }
     
     /**
@@ -2030,6 +2618,9 @@ public final class Async {
      * Return an Observable that calls the given action and emits the given result when an Observer subscribes.
      * <p>
      * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/fromAction.s.png" alt="">
+     * <p>
+     * The returned Observable is a {@link CallableObservable}, so operators can recognize it and invoke the
+     * function directly.
      * 
      * @param <R> the return type
      * @param action the action to invoke on each subscription
@@ -2039,7 +2630,7 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-fromaction">RxJava Wiki: fromAction()</a>
      */
     public static <R> Observable<R> fromAction(Action0 action, R result, Scheduler scheduler) {
-        return Observable.create(OperatorFromFunctionals.fromAction(action, result)).subscribeOn(scheduler);
+        return new CallableObservable<R>(OperatorFromFunctionals.toCallable(action, result), scheduler);
     }
     
     /**
@@ -2047,6 +2638,9 @@ public final class Async {
      * subscribes.
      * <p>
      * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/fromCallable.s.png" alt="">
+     * <p>
+     * The returned Observable is a {@link CallableObservable}, so operators can recognize it and invoke the
+     * function directly.
      * 
      * @param <R> the return type
      * @param callable the callable to call on each subscription
@@ -2057,7 +2651,49 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-fromcallable">RxJava Wiki: fromCallable()</a>
      */
     public static <R> Observable<R> fromCallable(Callable<? extends R> callable, Scheduler scheduler) {
-        return Observable.create(OperatorFromFunctionals.fromCallable(callable)).subscribeOn(scheduler);
+        return new CallableObservable<R>(callable, scheduler);
+    }
+    
+    /**
+     * Return an Observable that calls the given Callable on the given Scheduler at most once per time-to-live
+     * and emits its cached result to the Observers subscribing in the meantime.
+     * <p>
+     * Observers subscribing while the Callable runs share that invocation. Exceptions are not cached, so the
+     * next Observer subscribing after a failure invokes the Callable again.
+     * 
+     * @param <R> the return type
+     * @param callable the callable to call
+     * @param ttl the time the result is cached for after the Callable returns
+     * @param unit the time unit of {@code ttl}
+     * @param scheduler the Scheduler where the Callable is called
+     * @return an Observable that emits the cached result of the Callable
+     * @see #fromCallableCached(java.util.concurrent.Callable, long, long, java.util.concurrent.TimeUnit, rx.Scheduler)
+     */
+    public static <R> Observable<R> fromCallableCached(Callable<? extends R> callable, long ttl, TimeUnit unit, Scheduler scheduler) {
+        return Observable.create(OperatorFromFunctionals.<R>fromCallableCached(callable, ttl, 0L, unit, scheduler));
+    }
+    
+    /**
+     * Return an Observable that calls the given Callable on the given Scheduler at most once per time-to-live
+     * and emits its cached result to the Observers subscribing in the meantime, refreshing the result in the
+     * background before it expires.
+     * <p>
+     * The first Observer subscribing within {@code refreshAhead} of the expiry still receives the cached
+     * result but also starts a new invocation, whose result replaces the cached one once it succeeds.
+     * Observers subscribing while the Callable runs share that invocation. Exceptions are not cached.
+     * 
+     * @param <R> the return type
+     * @param callable the callable to call
+     * @param ttl the time the result is cached for after the Callable returns
+     * @param refreshAhead how long before the expiry the result is refreshed, zero to not refresh ahead
+     * @param unit the time unit of {@code ttl} and {@code refreshAhead}
+     * @param scheduler the Scheduler where the Callable is called
+     * @return an Observable that emits the cached result of the Callable
+     * @throws IllegalArgumentException if {@code refreshAhead} is negative or not less than {@code ttl}
+     */
+    public static <R> Observable<R> fromCallableCached(Callable<? extends R> callable, long ttl, long refreshAhead, 
+            TimeUnit unit, Scheduler scheduler) {
+        return Observable.create(OperatorFromFunctionals.<R>fromCallableCached(callable, ttl, refreshAhead, unit, scheduler));
     }
     
     /**
@@ -2065,6 +2701,9 @@ public final class Async {
      * subscribes.
      * <p>
      * <img width="640" src="https://raw.github.com/wiki/ReactiveX/RxJava/images/rx-operators/fromRunnable.s.png" alt="">
+     * <p>
+     * The returned Observable is a {@link CallableObservable}, so operators can recognize it and invoke the
+     * function directly.
      * 
      * @param <R> the return type
      * @param run the runnable to invoke on each subscription
@@ -2075,7 +2714,7 @@ public final class Async {
      * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-fromrunnable">RxJava Wiki: fromRunnable()</a>
      */
     public static <R> Observable<R> fromRunnable(final Runnable run, final R result, Scheduler scheduler) {
-        return Observable.create(OperatorFromFunctionals.fromRunnable(run, result)).subscribeOn(scheduler);
+        return new CallableObservable<R>(OperatorFromFunctionals.toCallable(run, result), scheduler);
     }
 
     /**
@@ -2112,27 +2751,197 @@ public final class Async {
     public static <T, U> StoppableObservable<U> runAsync(Scheduler scheduler,
             final Subject<T, U> subject, 
             final Action2<? super Observer<? super T>, ? super Subscription> action) {
-        final SerialSubscription csub = new SerialSubscription();
-        
-        StoppableObservable<U> co = new StoppableObservable<U>(new Observable.OnSubscribe<U>() {
-            @Override
-            public void call(Subscriber<? super U> t1) {
-                subject.subscribe(t1);
-            }
-        }, csub);
-        
-        final Worker inner = scheduler.createWorker();
-        csub.set(inner);
-        
-        inner.schedule(new Action0() {
-            @Override
-            public void call() {
-                if (!csub.isUnsubscribed()) {
-                    action.call(subject, csub);
-                }
-            }
-        });
-        
-        return co;
+        return OperatorRunAsync.runAsync(scheduler, subject, action);
+    }
+
+    /**
+     * Runs the provided action on the given scheduler and hands it an emitter which tells how many values
+     * the observers of the returned StoppableObservable can receive, so the action can pace itself instead of
+     * flooding slow observers. At most {@link OperatorRunAsync#DEFAULT_CAPACITY} values are queued and the
+     * values emitted beyond the demand are handled by the given strategy. The action is immediately executed
+     * and unobserved values will be lost.
+     *
+     * @param <T> the output value type
+     * @param scheduler the Scheduler where the action is executed
+     * @param strategy what to do with the values emitted without demand
+     * @param action the action to execute, receives an emitter where the events can be pumped and a
+     *               Subscription which lets it check for cancellation condition
+     * @return an Observable that provides a Subscription interface to cancel the action
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-runasync">RxJava Wiki: runAsync()</a>
+     */
+    public static <T> StoppableObservable<T> runAsync(Scheduler scheduler, OverflowStrategy strategy,
+            final Action2<? super AsyncEmitter<T>, ? super Subscription> action) {
+        return runAsync(scheduler, strategy, OperatorRunAsync.DEFAULT_CAPACITY, action);
+    }
+
+    /**
+     * Runs the provided action on the given scheduler and hands it an emitter which tells how many values
+     * the observers of the returned StoppableObservable can receive, so the action can pace itself instead of
+     * flooding slow observers. At most the given capacity of values are queued and the values emitted beyond
+     * the demand are handled by the given strategy. The action is immediately executed and unobserved values
+     * will be lost.
+     *
+     * @param <T> the output value type
+     * @param scheduler the Scheduler where the action is executed
+     * @param strategy what to do with the values emitted without demand
+     * @param capacity the maximum number of values queued for the observers
+     * @param action the action to execute, receives an emitter where the events can be pumped and a
+     *               Subscription which lets it check for cancellation condition
+     * @return an Observable that provides a Subscription interface to cancel the action
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-runasync">RxJava Wiki: runAsync()</a>
+     */
+    public static <T> StoppableObservable<T> runAsync(Scheduler scheduler, OverflowStrategy strategy, int capacity,
+            final Action2<? super AsyncEmitter<T>, ? super Subscription> action) {
+        return OperatorRunAsync.runAsync(scheduler, strategy, capacity, action);
+    }
+
+    /**
+     * Runs the provided action on {@code producers} workers of the given scheduler and merges the events they
+     * propagate into the returned StoppableObservable. Each producer receives its own Observer and its shard
+     * index, writes into its own queue and doesn't contend with the other producers. The actions are immediately
+     * executed and unobserved values will be lost.
+     * <p>
+     * The values are emitted as the slowest observer requests them; a producer whose queue is full waits in
+     * {@code onNext} until there is room again or the StoppableObservable is stopped.
+     *
+     * @param <T> the output value type
+     * @param scheduler the Scheduler where the action is executed
+     * @param producers the number of producers
+     * @param action the action to execute, receives the Observer of the shard where the events can be pumped,
+     *               a Subscription which lets it check for cancellation condition and the shard index
+     * @return an Observable that provides a Subscription interface to cancel the actions
+     * @throws IllegalArgumentException if {@code producers} is not positive
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-runasync">RxJava Wiki: runAsync()</a>
+     */
+    public static <T> StoppableObservable<T> runAsyncParallel(Scheduler scheduler, int producers,
+            final Action3<? super Observer<? super T>, ? super Subscription, ? super Integer> action) {
+        return OperatorRunAsync.runAsyncParallel(scheduler, producers, action);
+    }
+
+    /**
+     * Runs the provided action on the given scheduler and allows propagation of multiple events to the
+     * observers of the returned StoppableObservable. The last {@code size} values are replayed to late
+     * observers from a ring buffer allocated upfront; older values are lost.
+     * <p>
+     * Unlike with a ReplaySubject, live observers are served from the same ring: an observer which falls more
+     * than {@code size} values behind the action, for example one requesting in batches through
+     * {@code observeOn}, receives a {@code MissingBackpressureException}. The {@code size} should cover the
+     * batches the observers request.
+     *
+     * @param <T> the output value type
+     * @param scheduler the Scheduler where the action is executed
+     * @param size the maximum number of values replayed
+     * @param action the action to execute, receives an Observer where the events can be pumped and a
+     *               Subscription which lets it check for cancellation condition
+     * @return an Observable that provides a Subscription interface to cancel the action
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-runasync">RxJava Wiki: runAsync()</a>
+     */
+    public static <T> StoppableObservable<T> runAsyncReplay(Scheduler scheduler, int size,
+            final Action2<? super Observer<? super T>, ? super Subscription> action) {
+        return OperatorRunAsync.runAsyncReplay(scheduler, size, Long.MAX_VALUE, TimeUnit.MILLISECONDS, action);
+    }
+
+    /**
+     * Runs the provided action on the given scheduler and allows propagation of multiple events to the
+     * observers of the returned StoppableObservable. The last {@code size} values not older than
+     * {@code maxAge}, measured by the clock of the scheduler, are replayed to late observers from a ring buffer
+     * allocated upfront; other values are lost.
+     * <p>
+     * Unlike with a ReplaySubject, live observers are served from the same ring: an observer which falls more
+     * than {@code size} values behind the action, for example one requesting in batches through
+     * {@code observeOn}, receives a {@code MissingBackpressureException}. The {@code size} should cover the
+     * batches the observers request.
+     *
+     * @param <T> the output value type
+     * @param scheduler the Scheduler where the action is executed
+     * @param size the maximum number of values replayed
+     * @param maxAge the maximum age of the values replayed
+     * @param unit the time unit of {@code maxAge}
+     * @param action the action to execute, receives an Observer where the events can be pumped and a
+     *               Subscription which lets it check for cancellation condition
+     * @return an Observable that provides a Subscription interface to cancel the action
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-runasync">RxJava Wiki: runAsync()</a>
+     */
+    public static <T> StoppableObservable<T> runAsyncReplay(Scheduler scheduler, int size, long maxAge, TimeUnit unit,
+            final Action2<? super Observer<? super T>, ? super Subscription> action) {
+        return OperatorRunAsync.runAsyncReplay(scheduler, size, maxAge, unit, action);
+    }
+
+    /**
+     * Runs the provided action on its own thread, created by the given factory, and allows propagation of
+     * multiple events to the observers of the returned StoppableObservable. Unlike running it on the
+     * computation scheduler, a long running action doesn't hold on to a shared thread; the thread is
+     * terminated once the action returns or the StoppableObservable is stopped. The priority and daemon flag
+     * of the thread are set by the factory, see {@link OperatorRunAsync#threadFactory(String, int, boolean)}.
+     * The action is immediately executed and unobserved values will be lost.
+     *
+     * @param <T> the output value type
+     * @param threadFactory the factory of the thread where the action is executed
+     * @param action the action to execute, receives an Observer where the events can be pumped and a
+     *               Subscription which lets it check for cancellation condition
+     * @return an Observable that provides a Subscription interface to cancel the action
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-runasync">RxJava Wiki: runAsync()</a>
+     */
+    public static <T> StoppableObservable<T> runAsyncDedicated(ThreadFactory threadFactory,
+            final Action2<? super Observer<? super T>, ? super Subscription> action) {
+        return runAsync(OperatorRunAsync.dedicated(threadFactory), action);
+    }
+
+    /**
+     * Runs the provided action on its own thread, created by the given factory, and hands it an emitter which
+     * tells how many values the observers of the returned StoppableObservable can receive. The thread is
+     * terminated once the action returns or the StoppableObservable is stopped. The values emitted beyond the
+     * demand are handled by the given strategy. The action is immediately executed and unobserved values will
+     * be lost.
+     *
+     * @param <T> the output value type
+     * @param threadFactory the factory of the thread where the action is executed
+     * @param strategy what to do with the values emitted without demand
+     * @param action the action to execute, receives an emitter where the events can be pumped and a
+     *               Subscription which lets it check for cancellation condition
+     * @return an Observable that provides a Subscription interface to cancel the action
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-runasync">RxJava Wiki: runAsync()</a>
+     */
+    public static <T> StoppableObservable<T> runAsyncDedicated(ThreadFactory threadFactory, OverflowStrategy strategy,
+            final Action2<? super AsyncEmitter<T>, ? super Subscription> action) {
+        return runAsync(OperatorRunAsync.dedicated(threadFactory), strategy, action);
+    }
+
+    /**
+     * Runs the provided action on {@code producers} threads, each created by the given factory, and merges the
+     * events they propagate into the returned StoppableObservable. The thread of each action is terminated once
+     * the action returns or the StoppableObservable is stopped. The actions are immediately executed and
+     * unobserved values will be lost.
+     *
+     * @param <T> the output value type
+     * @param threadFactory the factory of the threads where the actions are executed
+     * @param producers the number of producers
+     * @param action the action to execute, receives the Observer of the shard where the events can be pumped,
+     *               a Subscription which lets it check for cancellation condition and the shard index
+     * @return an Observable that provides a Subscription interface to cancel the actions
+     * @throws IllegalArgumentException if {@code producers} is not positive
+     * @see <a href="https://github.com/ReactiveX/RxJava/wiki/Async-Operators#wiki-runasync">RxJava Wiki: runAsync()</a>
+     */
+    public static <T> StoppableObservable<T> runAsyncDedicated(ThreadFactory threadFactory, int producers,
+            final Action3<? super Observer<? super T>, ? super Subscription, ? super Integer> action) {
+        return runAsyncParallel(OperatorRunAsync.dedicated(threadFactory), producers, action);
+    }
+
+    /**
+     * Registers an action to run once the producer owning the given cancellation token is asked to stop, either
+     * gracefully or immediately, or right away if it already has been. The producer actions of the runAsync
+     * family receive such a token, and can use this to close a resource they block on.
+     *
+     * @param token the Subscription received by the producer action
+     * @param action the action to run
+     * @return the Subscription to deregister the action
+     * @throws IllegalArgumentException if the token doesn't support stop callbacks
+     * @see StoppableObservable#onStop(Action0)
+     */
+    public static Subscription onStop(Subscription token, Action0 action) {
+        return StopToken.onStop(token, action);
     }
 }
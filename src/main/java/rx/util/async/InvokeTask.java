@@ -0,0 +1,260 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+import rx.Observable;
+import rx.Observable.OnSubscribe;
+import rx.Scheduler;
+import rx.Scheduler.Worker;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.functions.Func1;
+import rx.functions.Func2;
+import rx.functions.Func3;
+import rx.functions.Func4;
+import rx.functions.Func5;
+import rx.functions.Func6;
+import rx.functions.Func7;
+import rx.functions.Func8;
+import rx.functions.Func9;
+import rx.functions.FuncN;
+import rx.subscriptions.Subscriptions;
+import rx.util.async.functions.ThrowingFunc1;
+import rx.util.async.functions.ThrowingFunc2;
+import rx.util.async.functions.ThrowingFunc3;
+import rx.util.async.functions.ThrowingFunc4;
+import rx.util.async.functions.ThrowingFunc5;
+import rx.util.async.functions.ThrowingFunc6;
+import rx.util.async.functions.ThrowingFunc7;
+import rx.util.async.functions.ThrowingFunc8;
+import rx.util.async.functions.ThrowingFunc9;
+import rx.util.async.functions.ThrowingFuncN;
+
+/**
+ * Invokes a function of any arity with the arguments it carries on a scheduler
+ * and holds the result for its subscribers.
+ * <p>
+ * A single task replaces the Callable capturing the arguments, the Action0 running
+ * it and the AsyncSubject holding the result, so an asynchronous call allocates the
+ * argument array and the task besides what the scheduler needs. Like the AsyncSubject,
+ * the task is hot: the function is invoked once regardless of the subscribers, which
+ * all receive the same result.
+ * @param <R> the result type
+ */
+final class InvokeTask<R> extends AtomicReference<Subscriber<? super R>[]> implements Action0, OnSubscribe<R> {
+    /** */
+    private static final long serialVersionUID = -4302932440395289406L;
+    /** The arity of a {@link FuncN} or {@link ThrowingFuncN} which receives the argument array itself. */
+    static final int ARITY_N = -1;
+    @SuppressWarnings("rawtypes")
+    static final Subscriber[] EMPTY = new Subscriber[0];
+    @SuppressWarnings("rawtypes")
+    static final Subscriber[] TERMINATED = new Subscriber[0];
+    /** The Callable, Func or ThrowingFunc to invoke. */
+    final Object func;
+    final int arity;
+    final Object[] args;
+    Worker worker;
+    /** The result, visible through the terminated subscriber array. */
+    R value;
+    /** The failure, visible through the terminated subscriber array. */
+    Throwable error;
+    
+    @SuppressWarnings("unchecked")
+    InvokeTask(Object func, int arity, Object[] args) {
+        super(EMPTY);
+        this.func = func;
+        this.arity = arity;
+        this.args = args;
+    }
+    
+    /**
+     * Invokes the function with the given arguments on the scheduler and returns
+     * an Observable which emits its result.
+     * <p>
+     * The arity selects the interface of the function: 0 for a {@link Callable},
+     * 1 to 9 for the matching {@link Func1 FuncX} or {@link ThrowingFunc1 ThrowingFuncX}
+     * and {@link #ARITY_N} for a {@link FuncN} or {@link ThrowingFuncN}.
+     * @param <R> the result type
+     * @param func the function to invoke
+     * @param arity the arity of the function
+     * @param args the arguments, not copied, may be null for arity 0
+     * @param scheduler the scheduler to invoke the function on
+     * @return the Observable which emits the result of the function
+     */
+    static <R> Observable<R> start(Object func, int arity, Object[] args, Scheduler scheduler) {
+        if ((arity < 0 || arity > 9) && arity != ARITY_N) {
+            throw new IllegalArgumentException("Unsupported arity: " + arity);
+        }
+        InvokeTask<R> task = new InvokeTask<R>(func, arity, args);
+        Worker w = scheduler.createWorker();
+        task.worker = w;
+        w.schedule(task);
+        return Observable.create(task);
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    R invoke() throws Exception {
+        Object f = func;
+        Object[] a = args;
+        switch (arity) {
+        case 0:
+            return ((Callable<R>)f).call();
+        case 1:
+            if (f instanceof Func1) {
+                return (R)((Func1)f).call(a[0]);
+            }
+            return (R)((ThrowingFunc1)f).call(a[0]);
+        case 2:
+            if (f instanceof Func2) {
+                return (R)((Func2)f).call(a[0], a[1]);
+            }
+            return (R)((ThrowingFunc2)f).call(a[0], a[1]);
+        case 3:
+            if (f instanceof Func3) {
+                return (R)((Func3)f).call(a[0], a[1], a[2]);
+            }
+            return (R)((ThrowingFunc3)f).call(a[0], a[1], a[2]);
+        case 4:
+            if (f instanceof Func4) {
+                return (R)((Func4)f).call(a[0], a[1], a[2], a[3]);
+            }
+            return (R)((ThrowingFunc4)f).call(a[0], a[1], a[2], a[3]);
+        case 5:
+            if (f instanceof Func5) {
+                return (R)((Func5)f).call(a[0], a[1], a[2], a[3], a[4]);
+            }
+            return (R)((ThrowingFunc5)f).call(a[0], a[1], a[2], a[3], a[4]);
+        case 6:
+            if (f instanceof Func6) {
+                return (R)((Func6)f).call(a[0], a[1], a[2], a[3], a[4], a[5]);
+            }
+            return (R)((ThrowingFunc6)f).call(a[0], a[1], a[2], a[3], a[4], a[5]);
+        case 7:
+            if (f instanceof Func7) {
+                return (R)((Func7)f).call(a[0], a[1], a[2], a[3], a[4], a[5], a[6]);
+            }
+            return (R)((ThrowingFunc7)f).call(a[0], a[1], a[2], a[3], a[4], a[5], a[6]);
+        case 8:
+            if (f instanceof Func8) {
+                return (R)((Func8)f).call(a[0], a[1], a[2], a[3], a[4], a[5], a[6], a[7]);
+            }
+            return (R)((ThrowingFunc8)f).call(a[0], a[1], a[2], a[3], a[4], a[5], a[6], a[7]);
+        case 9:
+            if (f instanceof Func9) {
+                return (R)((Func9)f).call(a[0], a[1], a[2], a[3], a[4], a[5], a[6], a[7], a[8]);
+            }
+            return (R)((ThrowingFunc9)f).call(a[0], a[1], a[2], a[3], a[4], a[5], a[6], a[7], a[8]);
+        default:
+            if (f instanceof FuncN) {
+                return ((FuncN<R>)f).call(a);
+            }
+            return ((ThrowingFuncN<R>)f).call(a);
+        }
+    }
+    
+    @Override
+    public void call() {
+        try {
+            value = invoke();
+        } catch (Throwable t) {
+            error = t;
+        } finally {
+            worker.unsubscribe();
+        }
+        @SuppressWarnings("unchecked")
+        Subscriber<? super R>[] a = getAndSet(TERMINATED);
+        for (Subscriber<? super R> child : a) {
+            emit(child);
+        }
+    }
+    
+    @Override
+    public void call(final Subscriber<? super R> child) {
+        if (add(child)) {
+            child.add(Subscriptions.create(new Action0() {
+                @Override
+                public void call() {
+                    remove(child);
+                }
+            }));
+        } else {
+            emit(child);
+        }
+    }
+    
+    boolean add(Subscriber<? super R> child) {
+        for (;;) {
+            Subscriber<? super R>[] a = get();
+            if (a == TERMINATED) {
+                return false;
+            }
+            int n = a.length;
+            @SuppressWarnings({ "unchecked", "rawtypes" })
+            Subscriber<? super R>[] b = new Subscriber[n + 1];
+            System.arraycopy(a, 0, b, 0, n);
+            b[n] = child;
+            if (compareAndSet(a, b)) {
+                return true;
+            }
+        }
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    void remove(Subscriber<? super R> child) {
+        for (;;) {
+            Subscriber<? super R>[] a = get();
+            int n = a.length;
+            int j = -1;
+            for (int i = 0; i < n; i++) {
+                if (a[i] == child) {
+                    j = i;
+                    break;
+                }
+            }
+            if (j < 0) {
+                return;
+            }
+            Subscriber<? super R>[] b;
+            if (n == 1) {
+                b = EMPTY;
+            } else {
+                b = new Subscriber[n - 1];
+                System.arraycopy(a, 0, b, 0, j);
+                System.arraycopy(a, j + 1, b, j, n - j - 1);
+            }
+            if (compareAndSet(a, b)) {
+                return;
+            }
+        }
+    }
+    
+    void emit(Subscriber<? super R> child) {
+        if (child.isUnsubscribed()) {
+            return;
+        }
+        Throwable e = error;
+        if (e != null) {
+            child.onError(e);
+        } else {
+            child.onNext(value);
+            child.onCompleted();
+        }
+    }
+}
@@ -15,8 +15,13 @@
  */
 package rx.util.async;
 
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import rx.Observable;
 import rx.Subscription;
+import rx.functions.Action0;
+import rx.util.async.operators.StopToken;
 
 /**
  * An Observable that provides a Subscription interface to signal a stop condition to an asynchronous task.
@@ -39,4 +44,32 @@ public class StoppableObservable<T> extends Observable<T> implements Subscriptio
     public void unsubscribe() {
         token.unsubscribe();
     }
+    
+    /**
+     * Signals the asynchronous task to stop accepting new work, lets the values it already emitted
+     * flush to the subscribers and then completes them, unlike {@link #unsubscribe()} which abandons
+     * the values in flight.
+     * <p>
+     * If the subscribers don't receive the completion within the timeout, the task is stopped
+     * immediately and the returned Future fails with a TimeoutException. If the token doesn't
+     * support a graceful stop, the task is stopped immediately.
+     * @param timeout the time to wait for the subscribers to receive the completion
+     * @param unit the time unit
+     * @return the Future completed once the subscribers received the completion
+     */
+    public Future<Void> stopGracefully(long timeout, TimeUnit unit) {
+        return StopToken.stopGracefully(this, token, timeout, unit);
+    }
+    
+    /**
+     * Registers an action to run once the asynchronous task is asked to stop, either gracefully
+     * or immediately, or right away if it already has been.
+     * @param action the action to run, for example closing a resource the task blocks on
+     * @return the Subscription to deregister the action
+     * @throws IllegalArgumentException if the token doesn't support stop callbacks
+     * @see Async#onStop(Subscription, rx.functions.Action0)
+     */
+    public Subscription onStop(Action0 action) {
+        return StopToken.onStop(token, action);
+    }
 }
@@ -0,0 +1,144 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.functions.Func2;
+import rx.functions.Func3;
+import rx.functions.Func4;
+import rx.functions.Func5;
+import rx.functions.Func6;
+import rx.functions.Func7;
+import rx.functions.Func8;
+import rx.functions.Func9;
+import rx.functions.FuncN;
+
+/**
+ * The asynchronous function returned by the toAsync family for every arity.
+ * <p>
+ * Instead of a pair of anonymous classes per arity and per function kind, a single
+ * class implements all the function interfaces and hands the arguments to an
+ * {@link InvokeTask}, which dispatches on the arity it is given. Converting functions
+ * of any number and kind of arities thus loads this class and the task only.
+ * @param <R> the result type
+ */
+final class ToAsyncFunction<R> implements Func0<Observable<R>>, 
+        Func1<Object, Observable<R>>, 
+        Func2<Object, Object, Observable<R>>, 
+        Func3<Object, Object, Object, Observable<R>>, 
+        Func4<Object, Object, Object, Object, Observable<R>>, 
+        Func5<Object, Object, Object, Object, Object, Observable<R>>, 
+        Func6<Object, Object, Object, Object, Object, Object, Observable<R>>, 
+        Func7<Object, Object, Object, Object, Object, Object, Object, Observable<R>>, 
+        Func8<Object, Object, Object, Object, Object, Object, Object, Object, Observable<R>>, 
+        Func9<Object, Object, Object, Object, Object, Object, Object, Object, Object, Observable<R>>, 
+        FuncN<Observable<R>> {
+    /** The function to invoke, as accepted by {@link InvokeTask#start}. */
+    final Object func;
+    final int arity;
+    final Scheduler scheduler;
+    
+    ToAsyncFunction(Object func, int arity, Scheduler scheduler) {
+        this.func = func;
+        this.arity = arity;
+        this.scheduler = scheduler;
+    }
+    
+    /**
+     * Returns an asynchronous function which invokes the given function on the scheduler
+     * with the arguments it is called with.
+     * <p>
+     * The arity selects the interface of the function the same way as in
+     * {@link InvokeTask#start}; the returned object implements the rx.functions
+     * interface of the same arity, which the caller has to assign it to.
+     * @param <F> the type of the asynchronous function
+     * @param func the function to invoke
+     * @param arity the arity of the function
+     * @param scheduler the scheduler to invoke the function on
+     * @return the asynchronous function
+     */
+    @SuppressWarnings("unchecked")
+    static <F> F create(Object func, int arity, Scheduler scheduler) {
+        if ((arity < 0 || arity > 9) && arity != InvokeTask.ARITY_N) {
+            throw new IllegalArgumentException("Unsupported arity: " + arity);
+        }
+        return (F)new ToAsyncFunction<Object>(func, arity, scheduler);
+    }
+    
+    Observable<R> start(Object[] args) {
+        return InvokeTask.start(func, arity, args, scheduler);
+    }
+    
+    @Override
+    public Observable<R> call() {
+        return start(null);
+    }
+    
+    @Override
+    public Observable<R> call(Object t1) {
+        return start(new Object[] { t1 });
+    }
+    
+    @Override
+    public Observable<R> call(Object t1, Object t2) {
+        return start(new Object[] { t1, t2 });
+    }
+    
+    @Override
+    public Observable<R> call(Object t1, Object t2, Object t3) {
+        return start(new Object[] { t1, t2, t3 });
+    }
+    
+    @Override
+    public Observable<R> call(Object t1, Object t2, Object t3, Object t4) {
+        return start(new Object[] { t1, t2, t3, t4 });
+    }
+    
+    @Override
+    public Observable<R> call(Object t1, Object t2, Object t3, Object t4, Object t5) {
+        return start(new Object[] { t1, t2, t3, t4, t5 });
+    }
+    
+    @Override
+    public Observable<R> call(Object t1, Object t2, Object t3, Object t4, Object t5, Object t6) {
+        return start(new Object[] { t1, t2, t3, t4, t5, t6 });
+    }
+    
+    @Override
+    public Observable<R> call(Object t1, Object t2, Object t3, Object t4, Object t5, Object t6, Object t7) {
+        return start(new Object[] { t1, t2, t3, t4, t5, t6, t7 });
+    }
+    
+    @Override
+    public Observable<R> call(Object t1, Object t2, Object t3, Object t4, Object t5, Object t6, Object t7, 
+            Object t8) {
+        return start(new Object[] { t1, t2, t3, t4, t5, t6, t7, t8 });
+    }
+    
+    @Override
+    public Observable<R> call(Object t1, Object t2, Object t3, Object t4, Object t5, Object t6, Object t7, 
+            Object t8, Object t9) {
+        return start(new Object[] { t1, t2, t3, t4, t5, t6, t7, t8, t9 });
+    }
+    
+    @Override
+    public Observable<R> call(Object... args) {
+        return start(args);
+    }
+}
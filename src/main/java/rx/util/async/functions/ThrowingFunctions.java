@@ -286,4 +286,61 @@ public class ThrowingFunctions {
 	    }
 	};
     }
+    
+    /**
+     * Converts a throwing function and its primitive int argument into a {@link Callable}
+     * without boxing the argument.
+     * 
+     * @param <R> the result type
+     * @param func a throwing function to convert into a callable
+     * @param t1 the input to apply to the throwing function
+     * @return A callable that when called will apply the provided argument to the provided throwing function
+     */
+    public static <R> Callable<R> toCallableInt(final ThrowingIntFunc1<? extends R> func, final int t1)
+    {
+	return new Callable<R>() {
+	    @Override
+	    public R call() throws Exception {
+		return func.call(t1);
+	    }
+	};
+    }
+    
+    /**
+     * Converts a throwing function and its primitive long argument into a {@link Callable}
+     * without boxing the argument.
+     * 
+     * @param <R> the result type
+     * @param func a throwing function to convert into a callable
+     * @param t1 the input to apply to the throwing function
+     * @return A callable that when called will apply the provided argument to the provided throwing function
+     */
+    public static <R> Callable<R> toCallableLong(final ThrowingLongFunc1<? extends R> func, final long t1)
+    {
+	return new Callable<R>() {
+	    @Override
+	    public R call() throws Exception {
+		return func.call(t1);
+	    }
+	};
+    }
+    
+    /**
+     * Converts a throwing function and its primitive double argument into a {@link Callable}
+     * without boxing the argument.
+     * 
+     * @param <R> the result type
+     * @param func a throwing function to convert into a callable
+     * @param t1 the input to apply to the throwing function
+     * @return A callable that when called will apply the provided argument to the provided throwing function
+     */
+    public static <R> Callable<R> toCallableDouble(final ThrowingDoubleFunc1<? extends R> func, final double t1)
+    {
+	return new Callable<R>() {
+	    @Override
+	    public R call() throws Exception {
+		return func.call(t1);
+	    }
+	};
+    }
 }
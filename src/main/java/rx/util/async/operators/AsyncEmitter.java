@@ -0,0 +1,51 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.List;
+
+import rx.Observer;
+
+/**
+ * An Observer handed to a producer action which tells how many values its
+ * subscribers are ready to receive, so the action can pace itself.
+ * <p>
+ * The methods of the Observer interface must be called serially.
+ * @param <T> the value type
+ */
+public interface AsyncEmitter<T> extends Observer<T> {
+    /**
+     * Returns the number of values which can be emitted right now without
+     * applying the overflow strategy, zero if there are no subscribers.
+     * Should be called only by the producer.
+     * @return the number of values which can be emitted right now
+     */
+    long requested();
+    /**
+     * Emits the values in order with a single demand check; the values beyond
+     * the demand are handled by the overflow strategy as if they were emitted
+     * one by one.
+     * @param values the values to emit
+     */
+    void onNextBatch(T[] values);
+    /**
+     * Emits the values in order with a single demand check; the values beyond
+     * the demand are handled by the overflow strategy as if they were emitted
+     * one by one.
+     * @param values the values to emit
+     */
+    void onNextBatch(List<? extends T> values);
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.concurrent.Callable;
+
+import rx.Observable;
+import rx.Scheduler;
+
+/**
+ * An Observable that invokes a Callable on a Scheduler for each subscriber and
+ * emits its single result.
+ * <p>
+ * Operators receiving such an Observable can recognize it and invoke the
+ * Callable directly when they already run on the right Scheduler, instead of
+ * subscribing to it as a general multi-valued source.
+ * @param <T> the result type
+ */
+public class CallableObservable<T> extends Observable<T> {
+    private final Callable<? extends T> callable;
+    private final Scheduler scheduler;
+    
+    public CallableObservable(Callable<? extends T> callable, Scheduler scheduler) {
+        super(OperatorFromFunctionals.<T>fromCallable(callable, scheduler));
+        this.callable = callable;
+        this.scheduler = scheduler;
+    }
+    /**
+     * Returns the Callable invoked for each subscriber.
+     * @return the Callable invoked for each subscriber
+     */
+    public Callable<? extends T> getCallable() {
+        return callable;
+    }
+    /**
+     * Returns the Scheduler where the Callable is invoked.
+     * @return the Scheduler where the Callable is invoked
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import rx.Scheduler;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
+
+/**
+ * A Scheduler which gives each worker its own thread from a ThreadFactory and
+ * terminates the thread when the worker is unsubscribed, which runAsync does
+ * once the producer action returns.
+ * <p>
+ * Long running producer loops would otherwise hold on to one of the shared
+ * threads of the computation or io schedulers.
+ */
+final class DedicatedThreadScheduler extends Scheduler {
+    final ThreadFactory threadFactory;
+    
+    public DedicatedThreadScheduler(ThreadFactory threadFactory) {
+        if (threadFactory == null) {
+            throw new NullPointerException("threadFactory");
+        }
+        this.threadFactory = threadFactory;
+    }
+    
+    @Override
+    public Worker createWorker() {
+        return new DedicatedWorker(Executors.newSingleThreadExecutor(threadFactory));
+    }
+    
+    /** Runs the actions on a single thread executor and shuts it down when unsubscribed. */
+    static final class DedicatedWorker extends Worker {
+        final ExecutorService executor;
+        final Worker actual;
+
+        public DedicatedWorker(ExecutorService executor) {
+            this.executor = executor;
+            this.actual = Schedulers.from(executor).createWorker();
+        }
+
+        @Override
+        public Subscription schedule(Action0 action) {
+            return actual.schedule(action);
+        }
+
+        @Override
+        public Subscription schedule(Action0 action, long delayTime, TimeUnit unit) {
+            return actual.schedule(action, delayTime, unit);
+        }
+
+        @Override
+        public void unsubscribe() {
+            actual.unsubscribe();
+            executor.shutdownNow();
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return actual.isUnsubscribed();
+        }
+    }
+}
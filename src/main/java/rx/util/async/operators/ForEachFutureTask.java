@@ -0,0 +1,80 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import rx.Subscription;
+
+/**
+ * The future task representing a for-each operation, which unsubscribes from
+ * the source when cancelled and reports the progress of the operation.
+ * <p>
+ * The progress can be queried from any thread while the operation runs, for
+ * example to tell a slow operation from a stuck one.
+ */
+public final class ForEachFutureTask extends FutureTask<Void> {
+    final Subscription cancel;
+    final LatchedObserver<?> progress;
+
+    ForEachFutureTask(Subscription cancel, Callable<Void> callable, LatchedObserver<?> progress) {
+        super(callable);
+        this.cancel = cancel;
+        this.progress = progress;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        cancel.unsubscribe();
+        return super.cancel(mayInterruptIfRunning);
+    }
+    /**
+     * Returns the number of items processed so far.
+     * @return the number of items processed so far
+     */
+    public long getItemCount() {
+        return progress.getItemCount();
+    }
+    /**
+     * Returns the total weight of the items processed so far, zero if no weigher was supplied.
+     * @return the total weight of the items processed so far
+     */
+    public long getWeight() {
+        return progress.getWeight();
+    }
+    /**
+     * Returns the approximate number of items processed per second recently, which
+     * decays towards zero while no items arrive.
+     * @return the approximate number of items processed per second
+     */
+    public double getRate() {
+        return progress.getRate();
+    }
+    /**
+     * Returns the time elapsed since the last item was processed, or since the
+     * subscription if there was no item yet.
+     * <p>
+     * The time is sampled every 64 items, so the result may also include the time
+     * taken by up to 63 items processed after the last sample.
+     * @param unit the time unit of the result
+     * @return the time elapsed since the last item was processed
+     */
+    public long getIdleTime(TimeUnit unit) {
+        return progress.getIdleTime(unit);
+    }
+}
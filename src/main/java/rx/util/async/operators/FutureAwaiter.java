@@ -0,0 +1,175 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import rx.Scheduler;
+import rx.Scheduler.Worker;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * Awaits the completion of a Future on behalf of a subscriber, cancelling
+ * the Future when the subscriber unsubscribes and optionally failing the
+ * subscriber with a TimeoutException once a deadline passes.
+ * <p>
+ * The cancellation is registered before the wait is scheduled so an early
+ * unsubscription cancels the Future even if the wait has not started yet.
+ * The deadline is watched by the shared {@link HashedWheelTimer}, so the
+ * TimeoutException is signalled on time even if the awaiting thread is late,
+ * and the awaiting thread waits with a timed {@code get()} so it is released
+ * at the deadline instead of when the Future eventually completes.
+ * @param <V> the value type of the Future
+ * @param <T> the value type of the subscriber
+ */
+abstract class FutureAwaiter<V, T> {
+    /** Indicates there is no deadline. */
+    static final long NO_DEADLINE = Long.MIN_VALUE;
+    /** The value to pass to {@link Future#cancel(boolean)}. */
+    final boolean mayInterruptIfRunning;
+    /** Cancel the Future once the deadline passes? */
+    final boolean cancelOnTimeout;
+    /** The scheduler where the Future is awaited, null to await on the subscribing thread. */
+    final Scheduler scheduler;
+
+    public FutureAwaiter(boolean mayInterruptIfRunning, boolean cancelOnTimeout, Scheduler scheduler) {
+        this.mayInterruptIfRunning = mayInterruptIfRunning;
+        this.cancelOnTimeout = cancelOnTimeout;
+        this.scheduler = scheduler;
+    }
+    /**
+     * Called with the value of the Future if the subscriber is still interested.
+     * @param t1 the subscriber
+     * @param value the value of the Future
+     */
+    abstract void onValue(Subscriber<? super T> t1, V value);
+    /**
+     * Await the future and call onValue with its value.
+     * @param t1 the subscriber
+     * @param future the future to await
+     * @param deadline the System.nanoTime() deadline or NO_DEADLINE
+     */
+    final void await(final Subscriber<? super T> t1, final Future<? extends V> future, long deadline) {
+        final CancelFuture cancel = new CancelFuture(future, mayInterruptIfRunning);
+        t1.add(Subscriptions.create(cancel));
+        if (t1.isUnsubscribed()) {
+            return;
+        }
+        final AtomicBoolean once;
+        final Subscription timer;
+        final Action0 onTimeout;
+        if (deadline != NO_DEADLINE) {
+            once = new AtomicBoolean();
+            onTimeout = new Action0() {
+                @Override
+                public void call() {
+                    if (once.compareAndSet(false, true)) {
+                        if (cancelOnTimeout) {
+                            future.cancel(mayInterruptIfRunning);
+                        } else {
+                            // the terminal event unsubscribes, which should leave the Future running
+                            cancel.disarmed = true;
+                        }
+                        t1.onError(new TimeoutException());
+                    }
+                }
+            };
+            long delay = deadline - System.nanoTime();
+            if (delay <= 0) {
+                onTimeout.call();
+                return;
+            }
+            timer = HashedWheelTimer.instance().schedule(onTimeout, delay, TimeUnit.NANOSECONDS);
+            t1.add(timer);
+        } else {
+            once = null;
+            timer = null;
+            onTimeout = null;
+        }
+        if (scheduler == null) {
+            get(t1, future, deadline, once, timer, onTimeout);
+        } else {
+            Worker inner = scheduler.createWorker();
+            t1.add(inner);
+            inner.schedule(new Action0() {
+                @Override
+                public void call() {
+                    get(t1, future, deadline, once, timer, onTimeout);
+                }
+            });
+        }
+    }
+
+    void get(Subscriber<? super T> t1, Future<? extends V> future, long deadline, 
+            AtomicBoolean once, Subscription timer, Action0 onTimeout) {
+        if (t1.isUnsubscribed()) {
+            return;
+        }
+        V value;
+        try {
+            if (deadline == NO_DEADLINE) {
+                value = future.get();
+            } else {
+                value = future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException ex) {
+            // the waiter reached the deadline before the timer thread, fail the same way
+            timer.unsubscribe();
+            onTimeout.call();
+            return;
+        } catch (Throwable t) {
+            // a cancellation caused by the unsubscription or the timeout is not an error
+            if ((once == null || once.compareAndSet(false, true)) && !t1.isUnsubscribed()) {
+                t1.onError(t);
+            }
+            return;
+        }
+        if (once != null) {
+            if (!once.compareAndSet(false, true)) {
+                return;
+            }
+            timer.unsubscribe();
+        }
+        if (!t1.isUnsubscribed()) {
+            onValue(t1, value);
+        }
+    }
+    
+    /** Cancels the Future unless disarmed. */
+    static final class CancelFuture implements Action0 {
+        final Future<?> future;
+        final boolean mayInterruptIfRunning;
+        volatile boolean disarmed;
+
+        public CancelFuture(Future<?> future, boolean mayInterruptIfRunning) {
+            this.future = future;
+            this.mayInterruptIfRunning = mayInterruptIfRunning;
+        }
+
+        @Override
+        public void call() {
+            if (!disarmed) {
+                future.cancel(mayInterruptIfRunning);
+            }
+        }
+    }
+}
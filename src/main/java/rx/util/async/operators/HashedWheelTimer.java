@@ -0,0 +1,192 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.plugins.RxJavaPlugins;
+
+/**
+ * A coarse grained timer shared by the Future timeouts.
+ * <p>
+ * A single daemon thread advances a wheel of buckets every tick and runs
+ * the actions whose deadline has passed. Scheduling is a lock-free enqueue
+ * and cancellation just flags the entry, which is then dropped the next time
+ * its bucket is visited, so thousands of pending timeouts cost neither a
+ * thread nor a heap reordering each.
+ * <p>
+ * The actions run on the timer thread and should be short.
+ */
+final class HashedWheelTimer {
+    /** The length of one tick. */
+    static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    /** The number of buckets, a power of 2. */
+    static final int WHEEL_SIZE = 512;
+    /** Mask to compute the bucket index of a tick. */
+    static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    /** Lazily creates the shared instance and its thread. */
+    private static final class Holder {
+        static final HashedWheelTimer INSTANCE = new HashedWheelTimer("RxAsyncTimeoutTimer");
+    }
+    /**
+     * Returns the shared timer instance.
+     * @return the shared timer instance
+     */
+    static HashedWheelTimer instance() {
+        return Holder.INSTANCE;
+    }
+    /** The newly scheduled entries, moved into the wheel by the timer thread. */
+    final Queue<TimerEntry> incoming;
+    /** The heads of the bucket lists, accessed only by the timer thread. */
+    final TimerEntry[] wheel;
+    /** The System.nanoTime() when the timer started. */
+    final long startNanos;
+
+    HashedWheelTimer(String name) {
+        this.incoming = new ConcurrentLinkedQueue<TimerEntry>();
+        this.wheel = new TimerEntry[WHEEL_SIZE];
+        this.startNanos = System.nanoTime();
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loop();
+            }
+        }, name);
+        t.setDaemon(true);
+        t.start();
+    }
+    /**
+     * Schedules the action to run after the given delay.
+     * @param action the action to run
+     * @param delay the delay
+     * @param unit the delay unit
+     * @return the subscription to cancel the action
+     */
+    Subscription schedule(Action0 action, long delay, TimeUnit unit) {
+        TimerEntry e = new TimerEntry(action, System.nanoTime() + unit.toNanos(delay));
+        incoming.offer(e);
+        return e;
+    }
+
+    void loop() {
+        long tick = 0;
+        for (;;) {
+            long tickEnd = startNanos + (tick + 1) * TICK_NANOS;
+            long sleep;
+            while ((sleep = tickEnd - System.nanoTime()) > 0) {
+                try {
+                    Thread.sleep(sleep / 1000000L, (int)(sleep % 1000000L));
+                } catch (InterruptedException ex) {
+                    // the timer thread is never interrupted on purpose
+                }
+            }
+            transfer(tick);
+            expire(tick);
+            tick++;
+        }
+    }
+    /** Moves the newly scheduled entries into their buckets. */
+    void transfer(long tick) {
+        TimerEntry e;
+        while ((e = incoming.poll()) != null) {
+            if (e.get() != TimerEntry.PENDING) {
+                continue;
+            }
+            long ticks = Math.max((e.deadline - startNanos) / TICK_NANOS, tick);
+            e.rounds = (ticks - tick) / WHEEL_SIZE;
+            int idx = (int)(ticks & WHEEL_MASK);
+            e.next = wheel[idx];
+            wheel[idx] = e;
+        }
+    }
+    /** Runs the due entries of the bucket of the given tick. */
+    void expire(long tick) {
+        int idx = (int)(tick & WHEEL_MASK);
+        TimerEntry prev = null;
+        TimerEntry e = wheel[idx];
+        while (e != null) {
+            TimerEntry next = e.next;
+            boolean remove;
+            if (e.get() != TimerEntry.PENDING) {
+                remove = true;
+            } else if (e.rounds <= 0) {
+                remove = true;
+                e.run();
+            } else {
+                remove = false;
+                e.rounds--;
+            }
+            if (remove) {
+                e.next = null;
+                if (prev == null) {
+                    wheel[idx] = next;
+                } else {
+                    prev.next = next;
+                }
+            } else {
+                prev = e;
+            }
+            e = next;
+        }
+    }
+
+    /** A scheduled action and its position in the wheel. */
+    static final class TimerEntry extends AtomicInteger implements Subscription {
+        /** */
+        private static final long serialVersionUID = -2472795693412564254L;
+        /** The entry is waiting for its deadline. */
+        static final int PENDING = 0;
+        /** The entry has been run or cancelled. */
+        static final int FINISHED = 1;
+        final Action0 action;
+        /** The System.nanoTime() deadline. */
+        final long deadline;
+        /** The remaining wheel rotations, accessed only by the timer thread. */
+        long rounds;
+        /** The next entry in the same bucket, accessed only by the timer thread. */
+        TimerEntry next;
+
+        public TimerEntry(Action0 action, long deadline) {
+            this.action = action;
+            this.deadline = deadline;
+        }
+
+        void run() {
+            if (compareAndSet(PENDING, FINISHED)) {
+                try {
+                    action.call();
+                } catch (Throwable t) {
+                    RxJavaPlugins.getInstance().getErrorHandler().handleError(t);
+                }
+            }
+        }
+
+        @Override
+        public void unsubscribe() {
+            compareAndSet(PENDING, FINISHED);
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return get() != PENDING;
+        }
+    }
+}
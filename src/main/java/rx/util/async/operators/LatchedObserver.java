@@ -15,36 +15,111 @@
  */
 package rx.util.async.operators;
 
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
-import rx.Observer;
+import rx.Scheduler;
+import rx.Scheduler.Worker;
+import rx.Subscriber;
 import rx.functions.Action0;
 import rx.functions.Action1;
-import rx.functions.Action2;
+import rx.functions.Func1;
+import rx.util.async.functions.IndexedAction1;
 
 /**
- * An observer implementation that calls a CountDownLatch in case
- * a terminal state has been reached.
+ * A subscriber implementation that releases the threads waiting in
+ * {@link #await()} in case a terminal state has been reached.
+ * <p>
+ * The completion status and the waiting threads are kept in a single
+ * field: it holds either a stack of waiting threads, which are parked
+ * directly, or the terminal state. Waiters spin briefly before parking
+ * on multiprocessor machines, see {@link #SPINS}.
+ * <p>
+ * The source is consumed with backpressure: {@code prefetch} items are requested
+ * upfront and the consumed amount is requested again each time 75% of it
+ * has been processed.
+ * <p>
+ * The progress counters are written only by the thread calling {@code onNext}
+ * and published with ordered writes, so they cost no atomic instruction on
+ * the hot path and can be read from any thread.
  * @param <T> the observed value type
  */
-abstract class LatchedObserver<T> implements Observer<T> {
-    /** The CountDownLatch to count-down on a terminal state. */
-    protected final CountDownLatch latch;
-    /** Contains the error. */
-    protected volatile Throwable error;
-    /**
-     * Indicates the completion status.
+abstract class LatchedObserver<T> extends Subscriber<T> {
+    /** The default number of items requested upfront. */
+    static final int DEFAULT_PREFETCH = 128;
+    /** 
+     * The number of times a waiter checks the state before parking, set through the 
+     * {@code rx.async.await.spins} system property, zero on uniprocessors by default. 
+     */
+    static final int SPINS = Integer.getInteger("rx.async.await.spins", 
+            Runtime.getRuntime().availableProcessors() > 1 ? 64 : 0);
+    /** The state after a normal completion. */
+    static final Terminal COMPLETED = new Terminal(null);
+    /** 
+     * Null while running without waiters, a {@link WaitNode} stack while running with
+     * waiters or a {@link Terminal} once terminated. 
      */
-    protected final AtomicBoolean done;
+    volatile Object state;
+    @SuppressWarnings("rawtypes")
+    static final AtomicReferenceFieldUpdater<LatchedObserver, Object> STATE
+            = AtomicReferenceFieldUpdater.newUpdater(LatchedObserver.class, Object.class, "state");
     /**
-     * Consturcts a LatchedObserver instance.
-     * @param latch the CountDownLatch to use
+     * Indicates a terminal event has been received; volatile as the batching
+     * implementation may fail from its timer thread.
      */
-    public LatchedObserver(CountDownLatch latch) {
-        this.latch = latch;
-        this.done = new AtomicBoolean();
+    volatile boolean done;
+    /** The number of items requested upfront. */
+    final int prefetch;
+    /** The number of consumed items after which they are requested again. */
+    final int limit;
+    /** The number of items consumed since the last request. */
+    int consumed;
+    /** Run once the terminal state is set, null if there is nothing to run. */
+    Runnable onTerminated;
+    /** Computes the weight of each item, null if not weighed. */
+    Func1<? super T, Long> weigher;
+    /** The length of a rate measurement window. */
+    static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /** The clock is read for the first item and then for every 64th item only. */
+    static final long CLOCK_SAMPLE_MASK = 63;
+    /** The System.nanoTime() at the subscription. */
+    final long startNanos;
+    /** The number of processed items. */
+    volatile long items;
+    /** The total weight of the processed items. */
+    volatile long weight;
+    /** The System.nanoTime() of the last processed item whose time was sampled. */
+    volatile long lastNanos;
+    /** The System.nanoTime() at the start of the current rate window. */
+    volatile long windowNanos;
+    /** The number of processed items at the start of the current rate window. */
+    volatile long windowItems;
+    /** The items per second in the last completed rate window. */
+    volatile double windowRate;
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<LatchedObserver> ITEMS
+            = AtomicLongFieldUpdater.newUpdater(LatchedObserver.class, "items");
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<LatchedObserver> WEIGHT
+            = AtomicLongFieldUpdater.newUpdater(LatchedObserver.class, "weight");
+    @SuppressWarnings("rawtypes")
+    static final AtomicLongFieldUpdater<LatchedObserver> LAST_NANOS
+            = AtomicLongFieldUpdater.newUpdater(LatchedObserver.class, "lastNanos");
+
+    public LatchedObserver(int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+        }
+        this.prefetch = prefetch;
+        this.limit = prefetch - (prefetch >> 2);
+        long now = System.nanoTime();
+        this.startNanos = now;
+        this.lastNanos = now;
+        this.windowNanos = now;
     }
     
     /**
@@ -67,17 +142,50 @@ abstract class LatchedObserver<T> implements Observer<T> {
      * @return true if succeded, false if this observable has already terminated
      */
     protected boolean fail(Throwable e) {
-        if (done.compareAndSet(false, true)) {
-            onErrorCore(e);
+        if (!done) {
+            done = true;
+            try {
+                onErrorCore(e);
+            } finally {
+                // may interrupt the current thread if it belongs to a cancelled worker
+                unsubscribe();
+                terminate(new Terminal(e));
+            }
             return true;
         }
         return false;
     }
 
+    @Override
+    public final void onStart() {
+        request(prefetch);
+    }
+
     @Override
     public final void onNext(T args) {
-        if (!done.get()) {
+        if (!done) {
+            Func1<? super T, Long> w = weigher;
+            if (w != null) {
+                long v;
+                try {
+                    v = w.call(args);
+                } catch (Throwable e) {
+                    fail(e);
+                    return;
+                }
+                WEIGHT.lazySet(this, weight + v);
+            }
             onNextCore(args);
+            if (!done) {
+                progress();
+                int c = consumed + 1;
+                if (c == limit) {
+                    consumed = 0;
+                    request(c);
+                } else {
+                    consumed = c;
+                }
+            }
         }
     }
 
@@ -88,24 +196,198 @@ abstract class LatchedObserver<T> implements Observer<T> {
 
     @Override
     public final void onCompleted() {
-        if (done.compareAndSet(false, true)) {
-            onCompletedCore();
+        if (!done) {
+            done = true;
+            try {
+                onCompletedCore();
+            } finally {
+                terminate(COMPLETED);
+            }
+        }
+    }
+    /** Updates the progress counters after an item has been processed. */
+    final void progress() {
+        long n = items + 1;
+        ITEMS.lazySet(this, n);
+        if (n != 1 && (n & CLOCK_SAMPLE_MASK) != 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        LAST_NANOS.lazySet(this, now);
+        long elapsed = now - windowNanos;
+        if (elapsed >= RATE_WINDOW_NANOS) {
+            windowRate = (n - windowItems) * 1e9 / elapsed;
+            windowItems = n;
+            windowNanos = now;
+        }
+    }
+    /**
+     * Returns the number of items processed so far.
+     * @return the number of items processed so far
+     */
+    public long getItemCount() {
+        return items;
+    }
+    /**
+     * Returns the total weight of the items processed so far, zero if there is no weigher.
+     * @return the total weight of the items processed so far
+     */
+    public long getWeight() {
+        return weight;
+    }
+    /**
+     * Returns the approximate number of items processed per second recently.
+     * <p>
+     * This is the rate of the last completed one second window, or the rate since the start
+     * of the current window once it is longer than that, so it decays while no items arrive.
+     * @return the approximate number of items processed per second
+     */
+    public double getRate() {
+        long elapsed = System.nanoTime() - windowNanos;
+        if (elapsed >= RATE_WINDOW_NANOS) {
+            return (items - windowItems) * 1e9 / elapsed;
+        }
+        return windowRate;
+    }
+    /**
+     * Returns the time elapsed since the last item was processed, or since the subscription
+     * if there was no item yet.
+     * <p>
+     * The time of an item is only recorded for the first and every 64th item, so while items
+     * arrive the result may include the time taken by up to 63 further items.
+     * @param unit the time unit of the result
+     * @return the time elapsed since the last item was processed
+     */
+    public long getIdleTime(TimeUnit unit) {
+        return unit.convert(System.nanoTime() - lastNanos, TimeUnit.NANOSECONDS);
+    }
+    /** 
+     * Sets the terminal state unless already terminated, unparks the waiting threads 
+     * and runs the onTerminated action. 
+     */
+    final void terminate(Terminal t) {
+        Object s;
+        do {
+            s = state;
+            if (s instanceof Terminal) {
+                return;
+            }
+        } while (!STATE.compareAndSet(this, s, t));
+        if (s instanceof WaitNode) {
+            WaitNode n = (WaitNode)s;
+            while (n != null) {
+                Thread w = n.thread;
+                if (w != null) {
+                    n.thread = null;
+                    LockSupport.unpark(w);
+                }
+                n = n.next;
+            }
+        }
+        Runnable r = onTerminated;
+        if (r != null) {
+            r.run();
         }
     }
     
     /**
-     * Block and await the latch.
+     * Block until a terminal state is reached.
      * @throws InterruptedException if the wait is interrupted
      */
     public void await() throws InterruptedException {
-        latch.await();
+        awaitNanos(false, 0L);
     }
     /**
-     * Block and await the latch for a given amount of time.
-     * @see CountDownLatch#await(long, java.util.concurrent.TimeUnit) 
+     * Block until a terminal state is reached or the given amount of time elapses.
+     * @return true if the terminal state has been reached, false if the time elapsed
+     * @throws InterruptedException if the wait is interrupted
      */
     public boolean await(long time, TimeUnit unit) throws InterruptedException {
-        return latch.await(time, unit);
+        return awaitNanos(true, unit.toNanos(time));
+    }
+    
+    boolean awaitNanos(boolean timed, long nanos) throws InterruptedException {
+        if (state instanceof Terminal) {
+            return true;
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        for (int i = SPINS; i > 0; i--) {
+            if (state instanceof Terminal) {
+                return true;
+            }
+        }
+        if (timed && nanos <= 0L) {
+            return false;
+        }
+        long deadline = timed ? System.nanoTime() + nanos : 0L;
+        WaitNode node = new WaitNode(Thread.currentThread());
+        for (;;) {
+            Object s = state;
+            if (s instanceof Terminal) {
+                return true;
+            }
+            node.next = (WaitNode)s;
+            if (STATE.compareAndSet(this, s, node)) {
+                break;
+            }
+        }
+        for (;;) {
+            if (state instanceof Terminal) {
+                return true;
+            }
+            if (Thread.interrupted()) {
+                removeWaiter(node);
+                throw new InterruptedException();
+            }
+            if (timed) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    removeWaiter(node);
+                    return state instanceof Terminal;
+                }
+                LockSupport.parkNanos(this, remaining);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+    /**
+     * Marks the node of an abandoned wait and unlinks it and any other abandoned
+     * node from the stack, so polling with timed waits doesn't grow the stack.
+     * <p>
+     * Unlinking races with other waiters pushing and leaving, in which case the
+     * traversal restarts, similar to {@code FutureTask.removeWaiter}.
+     * @param node the node of the abandoned wait
+     */
+    final void removeWaiter(WaitNode node) {
+        node.thread = null;
+        retry:
+        for (;;) {
+            Object s = state;
+            if (!(s instanceof WaitNode)) {
+                return;
+            }
+            WaitNode pred = null;
+            WaitNode q = (WaitNode)s;
+            while (q != null) {
+                WaitNode next = q.next;
+                if (q.thread != null) {
+                    pred = q;
+                } else if (pred != null) {
+                    pred.next = next;
+                    if (pred.thread == null) {
+                        // the predecessor has been abandoned meanwhile
+                        continue retry;
+                    }
+                } else if (!STATE.compareAndSet(this, q, next)) {
+                    continue retry;
+                }
+                q = next;
+            }
+            return;
+        }
     }
     /**
      * Returns the observed error or null if there was none.
@@ -114,96 +396,92 @@ abstract class LatchedObserver<T> implements Observer<T> {
      * @return the observed error
      */
     public Throwable getThrowable() {
-        return error;
+        Object s = state;
+        if (s instanceof Terminal) {
+            return ((Terminal)s).error;
+        }
+        return null;
+    }
+    
+    /** The terminal state holding the optional error. */
+    static final class Terminal {
+        final Throwable error;
+
+        public Terminal(Throwable error) {
+            this.error = error;
+        }
+    }
+    /** A waiting thread in the stack of waiters. */
+    static final class WaitNode {
+        /** The waiting thread, null once unparked or the wait is abandoned. */
+        volatile Thread thread;
+        volatile WaitNode next;
+
+        public WaitNode(Thread thread) {
+            this.thread = thread;
+        }
     }
     
     /**
      * Create a LatchedObserver with the given callback function(s).
      */
     public static <T> LatchedObserver<T> create(Action1<? super T> onNext) {
-        return create(onNext, new CountDownLatch(1));
+        return create(onNext, Functionals.emptyThrowable(), Functionals.empty());
     }
 
     /**
      * Create a LatchedObserver with the given callback function(s).
      */
     public static <T> LatchedObserver<T> create(Action1<? super T> onNext, Action1<? super Throwable> onError) {
-        return create(onNext, onError, new CountDownLatch(1));
+        return create(onNext, onError, Functionals.empty());
     }
 
     /**
      * Create a LatchedObserver with the given callback function(s).
      */
     public static <T> LatchedObserver<T> create(Action1<? super T> onNext, Action1<? super Throwable> onError, Action0 onCompleted) {
-        return create(onNext, onError, onCompleted, new CountDownLatch(1));
-    }
-    
-    /**
-     * Create a LatchedObserver with the given callback function(s) and a shared latch.
-     */
-    public static <T> LatchedObserver<T> create(Action1<? super T> onNext, CountDownLatch latch) {
-        return new LatchedObserverImpl<T>(onNext, Functionals.emptyThrowable(), Functionals.empty(), latch);
+        return create(onNext, onError, onCompleted, DEFAULT_PREFETCH);
     }
 
     /**
-     * Create a LatchedObserver with the given callback function(s) and a shared latch.
+     * Create a LatchedObserver with the given callback function(s) and prefetch amount.
      */
-    public static <T> LatchedObserver<T> create(Action1<? super T> onNext, Action1<? super Throwable> onError, CountDownLatch latch) {
-        return new LatchedObserverImpl<T>(onNext, onError, Functionals.empty(), latch);
-    }
-
-    /**
-     * Create a LatchedObserver with the given callback function(s) and a shared latch.
-     */
-    public static <T> LatchedObserver<T> create(Action1<? super T> onNext, Action1<? super Throwable> onError, Action0 onCompleted, CountDownLatch latch) {
-        return new LatchedObserverImpl<T>(onNext, onError, onCompleted, latch);
+    public static <T> LatchedObserver<T> create(Action1<? super T> onNext, Action1<? super Throwable> onError, Action0 onCompleted, int prefetch) {
+        return new LatchedObserverImpl<T>(onNext, onError, onCompleted, prefetch);
     }
     
     /**
      * Create a LatchedObserver with the given indexed callback function(s).
      */
-    public static <T> LatchedObserver<T> createIndexed(Action2<? super T, ? super Integer> onNext) {
-        return createIndexed(onNext, new CountDownLatch(1));
+    public static <T> LatchedObserver<T> createIndexed(IndexedAction1<? super T> onNext) {
+        return createIndexed(onNext, Functionals.emptyThrowable(), Functionals.empty());
     }
 
     /**
      * Create a LatchedObserver with the given indexed callback function(s).
      */
-    public static <T> LatchedObserver<T> createIndexed(Action2<? super T, ? super Integer> onNext, Action1<? super Throwable> onError) {
-        return createIndexed(onNext, onError, new CountDownLatch(1));
+    public static <T> LatchedObserver<T> createIndexed(IndexedAction1<? super T> onNext, Action1<? super Throwable> onError) {
+        return createIndexed(onNext, onError, Functionals.empty());
     }
 
     /**
      * Create a LatchedObserver with the given indexed callback function(s).
      */
-    public static <T> LatchedObserver<T> createIndexed(Action2<? super T, ? super Integer> onNext, Action1<? super Throwable> onError, Action0 onCompleted) {
-        return createIndexed(onNext, onError, onCompleted, new CountDownLatch(1));
-    }
-    
-    /**
-     * Create a LatchedObserver with the given indexed callback function(s) and a shared latch.
-     */
-    public static <T> LatchedObserver<T> createIndexed(Action2<? super T, ? super Integer> onNext, CountDownLatch latch) {
-        return new LatchedObserverIndexedImpl<T>(onNext, Functionals.emptyThrowable(), Functionals.empty(), latch);
+    public static <T> LatchedObserver<T> createIndexed(IndexedAction1<? super T> onNext, Action1<? super Throwable> onError, Action0 onCompleted) {
+        return new LatchedObserverIndexedImpl<T>(onNext, onError, onCompleted, DEFAULT_PREFETCH);
     }
 
     /**
-     * Create a LatchedObserver with the given indexed callback function(s) and a shared latch.
+     * Create a LatchedObserver which collects the values into chunks of at most the given
+     * size and calls the action with each chunk.
      */
-    public static <T> LatchedObserver<T> createIndexed(Action2<? super T, ? super Integer> onNext, Action1<? super Throwable> onError, CountDownLatch latch) {
-        return new LatchedObserverIndexedImpl<T>(onNext, onError, Functionals.empty(), latch);
+    public static <T> LatchedObserver<T> createBatch(int maxSize, long maxWait, TimeUnit unit, 
+            Action1<? super List<T>> onChunk, Scheduler scheduler) {
+        return new LatchedObserverBatchImpl<T>(maxSize, maxWait, unit, onChunk, scheduler);
     }
 
     /**
-     * Create a LatchedObserver with the given indexed callback function(s) and a shared latch.
-     */
-    public static <T> LatchedObserver<T> createIndexed(Action2<? super T, ? super Integer> onNext, Action1<? super Throwable> onError, Action0 onCompleted, CountDownLatch latch) {
-        return new LatchedObserverIndexedImpl<T>(onNext, onError, onCompleted, latch);
-    }
-
-    /**
-     * A latched observer which calls an action for each observed value
-     * and checks if a cancellation token is not unsubscribed.
+     * A latched observer which calls an action for each observed value.
      * @param <T> the observed value type
      */
     private static final class LatchedObserverImpl<T> extends LatchedObserver<T> {
@@ -213,9 +491,9 @@ abstract class LatchedObserver<T> implements Observer<T> {
 
         public LatchedObserverImpl(Action1<? super T> onNext, 
                 Action1<? super Throwable> onError, 
-                Action0 onCompleted, 
-                CountDownLatch latch) {
-            super(latch);
+                Action0 onCompleted,
+                int prefetch) {
+            super(prefetch);
             this.onNext = onNext;
             this.onError = onError;
             this.onCompleted = onCompleted;
@@ -232,39 +510,30 @@ abstract class LatchedObserver<T> implements Observer<T> {
 
         @Override
         protected void onErrorCore(Throwable e) {
-            try {
-                error = e;
-                onError.call(e);
-            } finally {
-                latch.countDown();
-            }
+            onError.call(e);
         }
 
         @Override
         protected void onCompletedCore() {
-            try {
-                onCompleted.call();
-            } finally {
-                latch.countDown();
-            }
+            onCompleted.call();
         }
     }
     /**
      * A latched observer which calls an action for each observed value
-     * and checks if a cancellation token is not unsubscribed.
+     * along with its index.
      * @param <T> the observed value type
      */
     private static final class LatchedObserverIndexedImpl<T> extends LatchedObserver<T> {
-        final Action2<? super T, ? super Integer> onNext;
+        final IndexedAction1<? super T> onNext;
         final Action1<? super Throwable> onError;
         final Action0 onCompleted;
-        int index;
+        long index;
 
-        public LatchedObserverIndexedImpl(Action2<? super T, ? super Integer> onNext, 
+        public LatchedObserverIndexedImpl(IndexedAction1<? super T> onNext, 
                 Action1<? super Throwable> onError, 
-                Action0 onCompleted, 
-                CountDownLatch latch) {
-            super(latch);
+                Action0 onCompleted,
+                int prefetch) {
+            super(prefetch);
             this.onNext = onNext;
             this.onError = onError;
             this.onCompleted = onCompleted;
@@ -272,10 +541,6 @@ abstract class LatchedObserver<T> implements Observer<T> {
         
         @Override
         protected void onNextCore(T args) {
-            if (index == Integer.MAX_VALUE) {
-                fail(new ArithmeticException("index overflow"));
-                return;
-            }
             try {
                 onNext.call(args, index++);
             } catch (Throwable t) {
@@ -285,20 +550,128 @@ abstract class LatchedObserver<T> implements Observer<T> {
 
         @Override
         protected void onErrorCore(Throwable e) {
+            onError.call(e);
+        }
+
+        @Override
+        protected void onCompletedCore() {
+            onCompleted.call();
+        }
+    }
+    /**
+     * A latched observer which collects the values into a reused buffer and calls
+     * an action with it once it is full or its first value has waited long enough.
+     * <p>
+     * The buffer and the action calls are guarded by this object, so the chunks are
+     * delivered serially and the buffer is cleared once the action returns.
+     * @param <T> the observed value type
+     */
+    private static final class LatchedObserverBatchImpl<T> extends LatchedObserver<T> {
+        final int maxSize;
+        final long maxWait;
+        final TimeUnit unit;
+        final Action1<? super List<T>> onChunk;
+        final Worker worker;
+        /** The current chunk, guarded by this. */
+        final List<T> buffer;
+        /** Identifies the current chunk for the timeouts, guarded by this. */
+        long generation;
+
+        public LatchedObserverBatchImpl(int maxSize, long maxWait, TimeUnit unit, 
+                Action1<? super List<T>> onChunk, Scheduler scheduler) {
+            super(DEFAULT_PREFETCH);
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("maxSize > 0 required but it was " + maxSize);
+            }
+            this.maxSize = maxSize;
+            this.maxWait = maxWait;
+            this.unit = unit;
+            this.onChunk = onChunk;
+            this.buffer = new ArrayList<T>(Math.min(maxSize, DEFAULT_PREFETCH));
+            this.worker = scheduler.createWorker();
+            add(worker);
+        }
+        
+        @Override
+        protected void onNextCore(T value) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                List<T> b = buffer;
+                b.add(value);
+                if (b.size() < maxSize) {
+                    if (b.size() == 1) {
+                        final long g = generation;
+                        worker.schedule(new Action0() {
+                            @Override
+                            public void call() {
+                                timeout(g);
+                            }
+                        }, maxWait, unit);
+                    }
+                    return;
+                }
+                Throwable e = emit();
+                if (e != null) {
+                    fail(e);
+                }
+            }
+        }
+        
+        void timeout(long g) {
+            Throwable e;
+            synchronized (this) {
+                if (done || g != generation) {
+                    return;
+                }
+                e = emit();
+                if (e != null && !fail(e)) {
+                    // onCompleted set done while the chunk was emitted and waits for this lock
+                    // in onCompletedCore; the terminal state decides which event wins
+                    unsubscribe();
+                    terminate(new Terminal(e));
+                }
+            }
+        }
+        /** 
+         * Calls the action with the current chunk and clears it, should be called while holding this. 
+         * @return the exception thrown by the action or null
+         */
+        Throwable emit() {
+            generation++;
             try {
-                error = e;
-                onError.call(e);
+                onChunk.call(buffer);
+            } catch (Throwable e) {
+                return e;
             } finally {
-                latch.countDown();
+                buffer.clear();
+            }
+            return null;
+        }
+
+        @Override
+        protected void onErrorCore(Throwable e) {
+            synchronized (this) {
+                buffer.clear();
             }
         }
 
         @Override
         protected void onCompletedCore() {
-            try {
-                onCompleted.call();
-            } finally {
-                latch.countDown();
+            Throwable e = null;
+            synchronized (this) {
+                // a failed chunk may have terminated this from the timer thread
+                if (state instanceof Terminal) {
+                    return;
+                }
+                if (!buffer.isEmpty()) {
+                    e = emit();
+                }
+            }
+            if (e != null) {
+                // done is already set so fail() would ignore the error
+                terminate(new Terminal(e));
             }
         }
     }
@@ -16,10 +16,14 @@
 package rx.util.async.operators;
 
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import rx.Observable;
+import rx.Observable.OnSubscribe;
 import rx.Scheduler;
+import rx.Subscriber;
 import rx.functions.Func0;
+import rx.schedulers.Schedulers;
 
 /**
  * Defer the execution of a factory method which produces an observable sequence.
@@ -37,21 +41,23 @@ public final class OperatorDeferFuture {
      * produced by the factory
      */
     public static <T> Observable<T> deferFuture(Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync) {
-        return Observable.defer(new DeferFutureFunc0<T>(observableFactoryAsync));
+        return deferFuture(observableFactoryAsync, true);
     }
-    /** The function called by the defer operator. */
-    private static final class DeferFutureFunc0<T> implements Func0<Observable<T>> {
-        final Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync;
-
-        public DeferFutureFunc0(Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync) {
-            this.observableFactoryAsync = observableFactoryAsync;
-        }
-        
-        @Override
-        public Observable<T> call() {
-            return Observable.merge(OperatorStartFuture.startFuture(observableFactoryAsync));
-        }
-        
+    
+    /**
+     * Returns an observable sequence that starts the specified asynchronous 
+     * factory function whenever a new observer subscribes and cancels the
+     * Future if the observer unsubscribes before it completes.
+     * @param <T> the result type
+     * @param observableFactoryAsync the asynchronous function to start for each observer
+     * @param mayInterruptIfRunning the value to pass to {@link Future#cancel(boolean)} on unsubscription
+     * @return the observable sequence containing values produced by the asynchronous observer
+     * produced by the factory
+     */
+    public static <T> Observable<T> deferFuture(
+            Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+            boolean mayInterruptIfRunning) {
+        return Observable.create(new OnSubscribeDeferFuture<T>(observableFactoryAsync, mayInterruptIfRunning, null));
     }
     
     /**
@@ -66,23 +72,126 @@ public final class OperatorDeferFuture {
     public static <T> Observable<T> deferFuture(
             Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
             Scheduler scheduler) {
-        return Observable.defer(new DeferFutureFunc0Scheduled<T>(observableFactoryAsync, scheduler));
+        return deferFuture(observableFactoryAsync, true, scheduler);
     }
-    /** The function called by the defer operator. */
-    private static final class DeferFutureFunc0Scheduled<T> implements Func0<Observable<T>> {
+    
+    /**
+     * Returns an observable sequence that starts the specified asynchronous 
+     * factory function whenever a new observer subscribes and cancels the
+     * Future if the observer unsubscribes before it completes.
+     * @param <T> the result type
+     * @param observableFactoryAsync the asynchronous function to start for each observer
+     * @param mayInterruptIfRunning the value to pass to {@link Future#cancel(boolean)} on unsubscription
+     * @param scheduler the scheduler where the completion of the Future is awaited
+     * @return the observable sequence containing values produced by the asynchronous observer
+     * produced by the factory
+     */
+    public static <T> Observable<T> deferFuture(
+            Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+            boolean mayInterruptIfRunning,
+            Scheduler scheduler) {
+        return Observable.create(new OnSubscribeDeferFuture<T>(observableFactoryAsync, mayInterruptIfRunning, scheduler));
+    }
+    
+    /**
+     * Returns an observable sequence that starts the specified asynchronous 
+     * factory function whenever a new observer subscribes and fails with a
+     * {@link java.util.concurrent.TimeoutException} if the Future doesn't
+     * produce the observable sequence within the given time after the subscription.
+     * @param <T> the result type
+     * @param observableFactoryAsync the asynchronous function to start for each observer
+     * @param timeout the time after which the Future is considered timed out
+     * @param unit the time unit of the timeout
+     * @param cancelOnTimeout cancel the Future if it doesn't complete in time?
+     * @param scheduler the scheduler where the completion of the Future is awaited,
+     * null to await it on the subscribing thread
+     * @return the observable sequence containing values produced by the asynchronous observer
+     * produced by the factory
+     */
+    public static <T> Observable<T> deferFuture(
+            Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+            long timeout, TimeUnit unit, boolean cancelOnTimeout, Scheduler scheduler) {
+        return Observable.create(new OnSubscribeDeferFuture<T>(observableFactoryAsync, true, 
+                cancelOnTimeout, Math.max(0L, unit.toNanos(timeout)), scheduler));
+    }
+    
+    /**
+     * Starts the factory for each subscriber, awaits the Future and subscribes
+     * the subscriber directly to the produced Observable.
+     * <p>
+     * There is exactly one inner Observable, so instead of merging, the inner
+     * subscriber shares the child's subscriptions and hands its Producer to the
+     * child, which forwards the requests the child made while the Future was
+     * still pending.
+     * @param <T> the result type
+     */
+    static final class OnSubscribeDeferFuture<T> extends FutureAwaiter<Observable<? extends T>, T> implements OnSubscribe<T> {
+        /** Indicates there is no timeout. */
+        static final long NO_TIMEOUT = -1L;
         final Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync;
-        final Scheduler scheduler;
+        /** The timeout in nanoseconds measured from the subscription or NO_TIMEOUT. */
+        final long timeoutNanos;
+
+        public OnSubscribeDeferFuture(Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+                boolean mayInterruptIfRunning,
+                Scheduler scheduler) {
+            this(observableFactoryAsync, mayInterruptIfRunning, false, NO_TIMEOUT, scheduler);
+        }
 
-        public DeferFutureFunc0Scheduled(Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+        public OnSubscribeDeferFuture(Func0<? extends Future<? extends Observable<? extends T>>> observableFactoryAsync,
+                boolean mayInterruptIfRunning,
+                boolean cancelOnTimeout,
+                long timeoutNanos,
                 Scheduler scheduler) {
+            super(mayInterruptIfRunning, cancelOnTimeout, scheduler);
             this.observableFactoryAsync = observableFactoryAsync;
-            this.scheduler = scheduler;
+            this.timeoutNanos = timeoutNanos;
         }
-        
+
         @Override
-        public Observable<T> call() {
-            return Observable.merge(OperatorStartFuture.startFuture(observableFactoryAsync, scheduler));
+        public void call(final Subscriber<? super T> t1) {
+            long deadline = timeoutNanos == NO_TIMEOUT ? NO_DEADLINE : System.nanoTime() + timeoutNanos;
+            Future<? extends Observable<? extends T>> future;
+            try {
+                future = observableFactoryAsync.call();
+            } catch (Throwable t) {
+                t1.onError(t);
+                return;
+            }
+            await(t1, future, deadline);
         }
         
+        @Override
+        void onValue(final Subscriber<? super T> t1, Observable<? extends T> source) {
+            if (source == null) {
+                t1.onError(new NullPointerException("The Future returned a null Observable"));
+                return;
+            }
+            if (source instanceof CallableObservable) {
+                CallableObservable<? extends T> c = (CallableObservable<? extends T>)source;
+                Scheduler s = c.getScheduler();
+                if (s == Schedulers.immediate() || s == scheduler) {
+                    // already on the right scheduler, no need for another worker
+                    new OperatorFromFunctionals.InvokeAsync<T>(c.getCallable()).call(t1);
+                    return;
+                }
+            }
+            source.unsafeSubscribe(new Subscriber<T>(t1) {
+                @Override
+                public void onNext(T t) {
+                    t1.onNext(t);
+                }
+
+                @Override
+                public void onError(Throwable e) {
+                    t1.onError(e);
+                }
+
+                @Override
+                public void onCompleted() {
+                    t1.onCompleted();
+                }
+            });
+        }
     }
 }
@@ -15,14 +15,22 @@
  */
 package rx.util.async.operators;
 
+import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 import rx.Observable;
+import rx.Scheduler;
 import rx.Subscription;
 import rx.exceptions.Exceptions;
 import rx.functions.Action0;
 import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.subscriptions.SerialSubscription;
+import rx.util.async.functions.DoubleAction1;
+import rx.util.async.functions.IndexedAction1;
+import rx.util.async.functions.IntAction1;
+import rx.util.async.functions.LongAction1;
 
 /**
  * Convert the observation of a source observable to a big Future call.
@@ -41,7 +49,7 @@ public final class OperatorForEachFuture {
      * @param onNext the action to call with each emitted element
      * @return the Future representing the entire for-each operation
      */
-    public static <T> FutureTask<Void> forEachFuture(
+    public static <T> ForEachFutureTask forEachFuture(
             Observable<? extends T> source, 
             Action1<? super T> onNext) {
         return forEachFuture(source, onNext, Functionals.emptyThrowable(), Functionals.empty());
@@ -56,7 +64,7 @@ public final class OperatorForEachFuture {
      * @param onError the action to call when an exception is emitted
      * @return the Future representing the entire for-each operation
      */
-    public static <T> FutureTask<Void> forEachFuture(
+    public static <T> ForEachFutureTask forEachFuture(
             Observable<? extends T> source, 
             Action1<? super T> onNext,
             Action1<? super Throwable> onError) {
@@ -73,47 +81,203 @@ public final class OperatorForEachFuture {
      * @param onCompleted the action to call when the source completes
      * @return the Future representing the entire for-each operation
      */
-    public static <T> FutureTask<Void> forEachFuture(
+    public static <T> ForEachFutureTask forEachFuture(
             Observable<? extends T> source, 
             Action1<? super T> onNext,
             Action1<? super Throwable> onError,
             Action0 onCompleted) {
+        return forEachFuture(source, onNext, onError, onCompleted, LatchedObserver.DEFAULT_PREFETCH);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item,
+     * and surfaces the completion or error through a Future, requesting the items
+     * in batches of the given size.
+     * @param <T> the element type of the Observable
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @param prefetch the number of items to request upfront, replenished once 75% of them has been consumed
+     * @return the Future representing the entire for-each operation
+     */
+    public static <T> ForEachFutureTask forEachFuture(
+            Observable<? extends T> source, 
+            Action1<? super T> onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted,
+            int prefetch) {
+        
+        LatchedObserver<T> lo = LatchedObserver.create(onNext, onError, onCompleted, prefetch);
+
+        Subscription s = source.subscribe(lo);
+        
+        return new ForEachFutureTask(s, new RunAwait<T>(lo), lo);
+    }
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item,
+     * and surfaces the completion or error through a Future which also reports the
+     * total weight of the processed items.
+     * @param <T> the element type of the Observable
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @param weigher the function computing the weight of each element, for example its size in bytes
+     * @return the Future representing the entire for-each operation
+     */
+    public static <T> ForEachFutureTask forEachFuture(
+            Observable<? extends T> source, 
+            Action1<? super T> onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted,
+            Func1<? super T, Long> weigher) {
         
         LatchedObserver<T> lo = LatchedObserver.create(onNext, onError, onCompleted);
+        lo.weigher = weigher;
 
         Subscription s = source.subscribe(lo);
         
-        FutureTaskCancel<Void> task = new FutureTaskCancel<Void>(s, new RunAwait<T>(lo));
+        return new ForEachFutureTask(s, new RunAwait<T>(lo), lo);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item on the given
+     * scheduler, and surfaces the completion or error through a Future which is completed by the
+     * terminal event of the source.
+     * <p>
+     * The returned task doesn't have to be run and no thread waits for the terminal event; the
+     * scheduler is used only while the callbacks run.
+     * @param <T> the element type of the Observable
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @param scheduler the Scheduler where the callbacks are run
+     * @return the Future representing the entire for-each operation
+     */
+    public static <T> ForEachFutureTask forEachFuture(
+            Observable<? extends T> source, 
+            Action1<? super T> onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted,
+            Scheduler scheduler) {
+        
+        LatchedObserver<T> lo = LatchedObserver.create(onNext, onError, onCompleted);
+
+        SerialSubscription s = new SerialSubscription();
+        
+        ForEachFutureTask task = new ForEachFutureTask(s, new RunAwait<T>(lo), lo);
+        // the observer has terminated by the time the task runs so it doesn't block
+        lo.onTerminated = task;
+        
+        s.set(source.observeOn(scheduler).subscribe(lo));
         
         return task;
     }
+    
     /**
-     * A future task that unsubscribes the given subscription when cancelled.
-     * @param <T> the return value type
+     * Subscribes to the given source and calls the callback for each emitted item along with
+     * its primitive long index, and surfaces the completion or error through a Future.
+     * @param <T> the element type of the Observable
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element and its index
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @return the Future representing the entire for-each operation
      */
-    private static final class FutureTaskCancel<T> extends FutureTask<T> {
-        final Subscription cancel;
-
-        public FutureTaskCancel(Subscription cancel, Callable<T> callable) {
-            super(callable);
-            this.cancel = cancel;
-        }
-
-        public FutureTaskCancel(Subscription cancel, Runnable runnable, T result) {
-            super(runnable, result);
-            this.cancel = cancel;
-        }
+    public static <T> ForEachFutureTask forEachFutureIndexed(
+            Observable<? extends T> source, 
+            IndexedAction1<? super T> onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted) {
+        
+        LatchedObserver<T> lo = LatchedObserver.createIndexed(onNext, onError, onCompleted);
 
-        @Override
-        public boolean cancel(boolean mayInterruptIfRunning) {
-            cancel.unsubscribe();
-            return super.cancel(mayInterruptIfRunning);
-        }
+        Subscription s = source.subscribe(lo);
         
+        return new ForEachFutureTask(s, new RunAwait<T>(lo), lo);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the primitive callback for each emitted item,
+     * and surfaces the completion or error through a Future.
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @return the Future representing the entire for-each operation
+     */
+    public static ForEachFutureTask forEachInt(
+            Observable<Integer> source, 
+            IntAction1 onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted) {
+        return forEachFuture(source, new IntActionAdapter(onNext), onError, onCompleted);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the primitive callback for each emitted item,
+     * and surfaces the completion or error through a Future.
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @return the Future representing the entire for-each operation
+     */
+    public static ForEachFutureTask forEachLong(
+            Observable<Long> source, 
+            LongAction1 onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted) {
+        return forEachFuture(source, new LongActionAdapter(onNext), onError, onCompleted);
     }
     
+    /**
+     * Subscribes to the given source and calls the primitive callback for each emitted item,
+     * and surfaces the completion or error through a Future.
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @return the Future representing the entire for-each operation
+     */
+    public static ForEachFutureTask forEachDouble(
+            Observable<Double> source, 
+            DoubleAction1 onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted) {
+        return forEachFuture(source, new DoubleActionAdapter(onNext), onError, onCompleted);
+    }
+    
+    /**
+     * Subscribes to the given source and calls the callback with chunks of the emitted items,
+     * and surfaces the completion or error through a Future.
+     * @param <T> the element type of the Observable
+     * @param source the source Observable
+     * @param maxSize the maximum number of items in a chunk
+     * @param maxWait the maximum time the first item of a chunk waits before the chunk is emitted
+     * @param unit the unit of maxWait
+     * @param onChunk the action to call with each chunk, the list is reused once the action returns
+     * @param scheduler the Scheduler where the timed chunks are emitted
+     * @return the Future representing the entire for-each operation
+     */
+    public static <T> ForEachFutureTask forEachBatchFuture(
+            Observable<? extends T> source,
+            int maxSize,
+            long maxWait,
+            TimeUnit unit,
+            Action1<? super List<T>> onChunk,
+            Scheduler scheduler) {
+        
+        LatchedObserver<T> lo = LatchedObserver.createBatch(maxSize, maxWait, unit, onChunk, scheduler);
+
+        Subscription s = source.subscribe(lo);
+        
+        return new ForEachFutureTask(s, new RunAwait<T>(lo), lo);
+    }
     /** Await the completion of a latched observer and throw its exception if any. */
-    private static final class RunAwait<T> implements Callable<Void> {
+    static final class RunAwait<T> implements Callable<Void> {
         final LatchedObserver<T> observer;
 
         public RunAwait(LatchedObserver<T> observer) {
@@ -130,4 +294,46 @@ public final class OperatorForEachFuture {
             return null;
         }
     }
+    
+    /** Unboxes the values for a primitive int action. */
+    static final class IntActionAdapter implements Action1<Integer> {
+        final IntAction1 action;
+
+        public IntActionAdapter(IntAction1 action) {
+            this.action = action;
+        }
+
+        @Override
+        public void call(Integer t1) {
+            action.call(t1.intValue());
+        }
+    }
+    
+    /** Unboxes the values for a primitive long action. */
+    static final class LongActionAdapter implements Action1<Long> {
+        final LongAction1 action;
+
+        public LongActionAdapter(LongAction1 action) {
+            this.action = action;
+        }
+
+        @Override
+        public void call(Long t1) {
+            action.call(t1.longValue());
+        }
+    }
+    
+    /** Unboxes the values for a primitive double action. */
+    static final class DoubleActionAdapter implements Action1<Double> {
+        final DoubleAction1 action;
+
+        public DoubleActionAdapter(DoubleAction1 action) {
+            this.action = action;
+        }
+
+        @Override
+        public void call(Double t1) {
+            action.call(t1.doubleValue());
+        }
+    }
 }
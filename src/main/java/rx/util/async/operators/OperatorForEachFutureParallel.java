@@ -0,0 +1,231 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Scheduler.Worker;
+import rx.exceptions.MissingBackpressureException;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func1;
+
+/**
+ * Consume a source observable on several workers in parallel, keeping the
+ * order of the items which share the same key, and surface the completion
+ * through a Future.
+ * <p>
+ * Each item is routed by the hash of its key to one of the rails; a rail
+ * owns a bounded single-producer single-consumer queue and a worker which
+ * drains it. The source is requested only as much as the rails can hold,
+ * so it is slowed down when the workers lag behind.
+ */
+public final class OperatorForEachFutureParallel {
+    /** Utility class. */
+    private OperatorForEachFutureParallel() { throw new IllegalStateException("No instances!"); }
+    
+    /**
+     * Subscribes to the given source and calls the action for each emitted item on one of
+     * {@code parallelism} workers, and surfaces the completion or error through a Future.
+     * @param <T> the element type of the Observable
+     * @param <K> the key type
+     * @param source the source Observable
+     * @param action the action to call with each emitted element
+     * @param parallelism the number of workers
+     * @param keySelector the function returning the key of an element, the elements with equal keys
+     * are handled in order on the same worker
+     * @param scheduler the Scheduler providing the workers
+     * @return the Future completed once all the workers have handled all the elements
+     */
+    public static <T, K> Future<Void> forEachFutureParallel(
+            Observable<? extends T> source,
+            Action1<? super T> action,
+            int parallelism,
+            Func1<? super T, ? extends K> keySelector,
+            Scheduler scheduler) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism > 0 required but it was " + parallelism);
+        }
+        ParallelSubscriber<T, K> parent = new ParallelSubscriber<T, K>(action, parallelism, keySelector, scheduler, LatchedObserver.DEFAULT_PREFETCH);
+        // a SafeSubscriber would release the workers as soon as the source completes
+        source.unsafeSubscribe(parent);
+        return parent;
+    }
+    
+    /**
+     * Routes the items to the rails and tracks their completion.
+     * @param <T> the observed value type
+     * @param <K> the key type
+     */
+    static final class ParallelSubscriber<T, K> extends OperatorToFuture.SubscriberFuture<T, Void> {
+        /** Stands for a null item in the queues. */
+        static final Object NULL = new Object();
+        final Action1<? super T> action;
+        final Func1<? super T, ? extends K> keySelector;
+        final Rail<T>[] rails;
+        /** The number of items requested upfront, also the capacity of each rail. */
+        final int prefetch;
+        /** The number of consumed items after which they are requested again. */
+        final int limit;
+        /** The number of items consumed since the last request, by all rails. */
+        final AtomicInteger consumed;
+        /** The number of rails which haven't finished yet. */
+        final AtomicInteger remaining;
+        /** Set before the rails are signalled about the completion of the source. */
+        volatile boolean sourceDone;
+        
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public ParallelSubscriber(Action1<? super T> action, int parallelism, 
+                Func1<? super T, ? extends K> keySelector, Scheduler scheduler, int prefetch) {
+            this.action = action;
+            this.keySelector = keySelector;
+            this.prefetch = prefetch;
+            this.limit = prefetch - (prefetch >> 2);
+            this.consumed = new AtomicInteger();
+            this.remaining = new AtomicInteger(parallelism);
+            this.rails = new Rail[parallelism];
+            for (int i = 0; i < parallelism; i++) {
+                Worker w = scheduler.createWorker();
+                add(w);
+                rails[i] = new Rail<T>(this, w, prefetch);
+            }
+        }
+        
+        @Override
+        public void onStart() {
+            // at most prefetch items are outstanding in total so any one rail can hold all of them
+            request(prefetch);
+        }
+        
+        @Override
+        public void onNext(T t) {
+            if (isDone()) {
+                return;
+            }
+            int idx;
+            try {
+                K key = keySelector.call(t);
+                int h = key == null ? 0 : key.hashCode();
+                h ^= h >>> 16;
+                idx = (h & Integer.MAX_VALUE) % rails.length;
+            } catch (Throwable e) {
+                onError(e);
+                return;
+            }
+            Rail<T> rail = rails[idx];
+            if (!rail.queue.offer(t == null ? NULL : t)) {
+                onError(new MissingBackpressureException());
+                return;
+            }
+            rail.schedule();
+        }
+        
+        @Override
+        public void onError(Throwable e) {
+            if (!isDone()) {
+                // release the source and the workers before the waiters are woken up
+                unsubscribe();
+                fail(e);
+            }
+        }
+        
+        @Override
+        public void onCompleted() {
+            sourceDone = true;
+            for (Rail<T> rail : rails) {
+                rail.schedule();
+            }
+        }
+        /** Called by a rail after an item has been handled. */
+        void consumedOne() {
+            // outstanding items never exceed prefetch < 2 * limit, so the counter can't skip the limit
+            if (consumed.incrementAndGet() == limit) {
+                consumed.addAndGet(-limit);
+                request(limit);
+            }
+        }
+        /** Called by a rail once the source completed and its queue is empty. */
+        void railDone() {
+            if (remaining.decrementAndGet() == 0) {
+                unsubscribe();
+                complete(null);
+            }
+        }
+    }
+    
+    /**
+     * A queue and the worker that drains it.
+     * @param <T> the value type
+     */
+    static final class Rail<T> extends AtomicInteger implements Action0 {
+        /** */
+        private static final long serialVersionUID = -5396408542406431478L;
+        final ParallelSubscriber<T, ?> parent;
+        final Worker worker;
+        final SpscQueue<Object> queue;
+
+        public Rail(ParallelSubscriber<T, ?> parent, Worker worker, int capacity) {
+            this.parent = parent;
+            this.worker = worker;
+            this.queue = new SpscQueue<Object>(capacity);
+        }
+        /** Schedules the drain unless it is already running. */
+        void schedule() {
+            if (getAndIncrement() == 0) {
+                worker.schedule(this);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void call() {
+            ParallelSubscriber<T, ?> p = parent;
+            int missed = 1;
+            for (;;) {
+                for (;;) {
+                    if (p.isDone()) {
+                        queue.clear();
+                        return;
+                    }
+                    boolean d = p.sourceDone;
+                    Object o = queue.poll();
+                    if (o == null) {
+                        if (d) {
+                            // leave the counter non-zero so the rail is never scheduled again
+                            p.railDone();
+                            return;
+                        }
+                        break;
+                    }
+                    try {
+                        p.action.call(o == ParallelSubscriber.NULL ? null : (T)o);
+                    } catch (Throwable e) {
+                        p.onError(e);
+                        return;
+                    }
+                    p.consumedOne();
+                }
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -15,13 +15,22 @@
  */
 package rx.util.async.operators;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import rx.Observable.OnSubscribe;
+import rx.Producer;
+import rx.Scheduler;
+import rx.Scheduler.Worker;
 import rx.Subscriber;
 import rx.functions.Action0;
 import rx.functions.Actions;
 import rx.functions.Func0;
+import rx.schedulers.Schedulers;
 
 /**
  * Operators that invoke a function or action if
@@ -46,17 +55,50 @@ public final class OperatorFromFunctionals {
     }
     /** Subscriber function that invokes a runnable and returns the given result. */
     public static <R> OnSubscribe<R> fromRunnable(final Runnable run, final R result) {
-        return new InvokeAsync<R>(new Func0<R>() {
+        return new InvokeAsync<R>(toCallable(run, result));
+    }
+    /** 
+     * Subscriber function that invokes the callable on the given scheduler, or directly
+     * on the subscribing thread if the scheduler is {@link Schedulers#immediate()}.
+     */
+    public static <R> OnSubscribe<R> fromCallable(Callable<? extends R> callable, Scheduler scheduler) {
+        return new InvokeScheduled<R>(callable, scheduler);
+    }
+    /**
+     * Subscriber function that invokes the callable on the given scheduler at most once per time-to-live
+     * and serves its cached result to the subscribers in the meantime.
+     * @param callable the callable to invoke
+     * @param ttl the time the value is cached for
+     * @param refreshAhead how long before the expiry a subscription starts a refresh in the background,
+     * zero to not refresh ahead
+     * @param unit the time unit of ttl and refreshAhead
+     * @param scheduler the scheduler where the callable is invoked
+     */
+    public static <R> OnSubscribe<R> fromCallableCached(Callable<? extends R> callable, 
+            long ttl, long refreshAhead, TimeUnit unit, Scheduler scheduler) {
+        if (refreshAhead < 0 || (refreshAhead > 0 && refreshAhead >= ttl)) {
+            throw new IllegalArgumentException("0 <= refreshAhead < ttl required but it was " + refreshAhead);
+        }
+        return new InvokeCached<R>(callable, unit.toNanos(ttl), unit.toNanos(refreshAhead), scheduler);
+    }
+    /** Returns a callable that invokes an action and returns the given result. */
+    public static <R> Callable<R> toCallable(Action0 action, R result) {
+        return Actions.toFunc(action, result);
+    }
+    /** Returns a callable that invokes a runnable and returns the given result. */
+    public static <R> Callable<R> toCallable(final Runnable run, final R result) {
+        return new Func0<R>() {
             @Override
             public R call() {
                 run.run();
                 return result;
             }
-        });
+        };
     }
     
     /**
-     * Invokes a java.util.concurrent.Callable when an observer subscribes.
+     * Invokes a java.util.concurrent.Callable when an observer subscribes
+     * and requests its value.
      * @param <R> the return type
      */
     static final class InvokeAsync<R> implements OnSubscribe<R> {
@@ -69,13 +111,264 @@ public final class OperatorFromFunctionals {
         }
         @Override
         public void call(Subscriber<? super R> t1) {
+            t1.setProducer(new InvokeProducer<R>(callable, t1, null));
+        }
+    }
+    /**
+     * Invokes a java.util.concurrent.Callable on a worker of the scheduler when an observer
+     * subscribes and requests its value.
+     * <p>
+     * Unlike {@code subscribeOn}, it schedules the invocation directly instead of
+     * subscribing through a nested Observable.
+     * @param <R> the return type
+     */
+    static final class InvokeScheduled<R> implements OnSubscribe<R> {
+        final Callable<? extends R> callable;
+        final Scheduler scheduler;
+        public InvokeScheduled(Callable<? extends R> callable, Scheduler scheduler) {
+            if (callable == null) {
+                throw new NullPointerException("function");
+            }
+            this.callable = callable;
+            this.scheduler = scheduler == Schedulers.immediate() ? null : scheduler;
+        }
+        @Override
+        public void call(Subscriber<? super R> t1) {
+            t1.setProducer(new InvokeProducer<R>(callable, t1, scheduler));
+        }
+    }
+    /**
+     * Invokes the callable once the first positive amount is requested and emits its value
+     * unless the subscriber has unsubscribed in the meantime.
+     * @param <R> the return type
+     */
+    static final class InvokeProducer<R> extends AtomicBoolean implements Producer, Action0 {
+        /** */
+        private static final long serialVersionUID = -2613525296399416569L;
+        final Callable<? extends R> callable;
+        final Subscriber<? super R> child;
+        /** The scheduler where the callable is invoked, null to invoke it on the requesting thread. */
+        final Scheduler scheduler;
+        Worker worker;
+
+        public InvokeProducer(Callable<? extends R> callable, Subscriber<? super R> child, Scheduler scheduler) {
+            this.callable = callable;
+            this.child = child;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("n >= 0 required but it was " + n);
+            }
+            if (n == 0 || !compareAndSet(false, true)) {
+                return;
+            }
+            if (scheduler == null) {
+                call();
+            } else {
+                Worker w = scheduler.createWorker();
+                worker = w;
+                child.add(w);
+                w.schedule(this);
+            }
+        }
+
+        @Override
+        public void call() {
+            try {
+                invoke();
+            } finally {
+                Worker w = worker;
+                if (w != null) {
+                    w.unsubscribe();
+                }
+            }
+        }
+        
+        void invoke() {
+            Subscriber<? super R> t1 = child;
+            if (t1.isUnsubscribed()) {
+                return;
+            }
             try {
-                t1.onNext(callable.call());
+                R v = callable.call();
+                if (t1.isUnsubscribed()) {
+                    return;
+                }
+                t1.onNext(v);
             } catch (Throwable t) {
-                t1.onError(t);
+                if (!t1.isUnsubscribed()) {
+                    t1.onError(t);
+                }
                 return;
             }
-            t1.onCompleted();
+            if (!t1.isUnsubscribed()) {
+                t1.onCompleted();
+            }
+        }
+    }
+    /**
+     * Shares the invocations of a callable between the subscribers and caches the
+     * result for a time-to-live.
+     * <p>
+     * Subscribers arriving while an invocation runs wait for it; afterwards they are
+     * served the cached result without locking until it expires. Errors are not cached.
+     * @param <R> the return type
+     */
+    static final class InvokeCached<R> implements OnSubscribe<R> {
+        final Callable<? extends R> callable;
+        final long ttlNanos;
+        final long refreshNanos;
+        /** The scheduler where the callable is invoked, null to invoke it on the subscribing thread. */
+        final Scheduler scheduler;
+        /** The invocation serving the subscribers. */
+        final AtomicReference<CachedValue<R>> current;
+
+        public InvokeCached(Callable<? extends R> callable, long ttlNanos, long refreshNanos, Scheduler scheduler) {
+            if (callable == null) {
+                throw new NullPointerException("function");
+            }
+            this.callable = callable;
+            this.ttlNanos = ttlNanos;
+            this.refreshNanos = refreshNanos;
+            this.scheduler = scheduler == Schedulers.immediate() ? null : scheduler;
+            this.current = new AtomicReference<CachedValue<R>>();
+        }
+
+        @Override
+        public void call(Subscriber<? super R> t1) {
+            for (;;) {
+                CachedValue<R> c = current.get();
+                if (c != null) {
+                    if (!c.done) {
+                        c.add(t1);
+                        return;
+                    }
+                    long now = System.nanoTime();
+                    if (now - c.expiresAt < 0) {
+                        t1.setProducer(new InvokeProducer<R>(c, t1, null));
+                        if (refreshNanos > 0 && now - c.refreshAt >= 0 && c.refreshing.compareAndSet(false, true)) {
+                            CachedValue<R> r = new CachedValue<R>(this, c);
+                            c.refresh = r;
+                            r.start();
+                        }
+                        return;
+                    }
+                    CachedValue<R> r = c.refresh;
+                    if (r != null) {
+                        // the refresh hasn't succeeded in time, wait for it or retry after its error
+                        current.compareAndSet(c, r);
+                        continue;
+                    }
+                }
+                CachedValue<R> n = new CachedValue<R>(this, null);
+                if (current.compareAndSet(c, n)) {
+                    n.add(t1);
+                    n.start();
+                    return;
+                }
+            }
+        }
+    }
+    /**
+     * One invocation of the cached callable, which also serves its outcome to the
+     * producers of the subscribers.
+     * @param <R> the return type
+     */
+    static final class CachedValue<R> implements Callable<R> {
+        final InvokeCached<R> parent;
+        /** The value this invocation refreshes, null if not a refresh. */
+        final CachedValue<R> previous;
+        /** Set once a refresh of this value has been started. */
+        final AtomicBoolean refreshing;
+        /** The refreshing invocation, null if there is none. */
+        volatile CachedValue<R> refresh;
+        /** The subscribers waiting for the invocation, guarded by this. */
+        List<Subscriber<? super R>> waiters;
+        /** Set after the outcome fields below are written. */
+        volatile boolean done;
+        R value;
+        Throwable error;
+        long expiresAt;
+        long refreshAt;
+        Worker worker;
+
+        public CachedValue(InvokeCached<R> parent, CachedValue<R> previous) {
+            this.parent = parent;
+            this.previous = previous;
+            this.refreshing = new AtomicBoolean();
+            this.waiters = new ArrayList<Subscriber<? super R>>();
+        }
+        
+        void add(Subscriber<? super R> t1) {
+            synchronized (this) {
+                if (!done) {
+                    waiters.add(t1);
+                    return;
+                }
+            }
+            t1.setProducer(new InvokeProducer<R>(this, t1, null));
+        }
+        
+        void start() {
+            Scheduler s = parent.scheduler;
+            if (s == null) {
+                invoke();
+            } else {
+                Worker w = s.createWorker();
+                worker = w;
+                w.schedule(new Action0() {
+                    @Override
+                    public void call() {
+                        invoke();
+                    }
+                });
+            }
+        }
+        /** Invokes the callable and completes this invocation. */
+        void invoke() {
+            R v = null;
+            Throwable e = null;
+            try {
+                v = parent.callable.call();
+            } catch (Throwable ex) {
+                e = ex;
+            }
+            Worker w = worker;
+            if (w != null) {
+                w.unsubscribe();
+            }
+            long now = System.nanoTime();
+            value = v;
+            error = e;
+            expiresAt = e == null ? now + parent.ttlNanos : now;
+            refreshAt = expiresAt - parent.refreshNanos;
+            List<Subscriber<? super R>> ws;
+            synchronized (this) {
+                ws = waiters;
+                waiters = null;
+                done = true;
+            }
+            if (e == null && previous != null) {
+                parent.current.compareAndSet(previous, this);
+            }
+            for (Subscriber<? super R> t1 : ws) {
+                t1.setProducer(new InvokeProducer<R>(this, t1, null));
+            }
+        }
+        /** Returns the cached value or throws the cached error. */
+        @Override
+        public R call() throws Exception {
+            Throwable e = error;
+            if (e != null) {
+                if (e instanceof Error) {
+                    throw (Error)e;
+                }
+                throw (Exception)e;
+            }
+            return value;
         }
     }
 }
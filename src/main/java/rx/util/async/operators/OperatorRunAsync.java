@@ -0,0 +1,987 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import rx.Observable.OnSubscribe;
+import rx.Observer;
+import rx.Producer;
+import rx.Scheduler;
+import rx.Scheduler.Worker;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.exceptions.MissingBackpressureException;
+import rx.functions.Action0;
+import rx.functions.Action2;
+import rx.functions.Action3;
+import rx.subjects.Subject;
+import rx.subscriptions.CompositeSubscription;
+import rx.subscriptions.SerialSubscription;
+import rx.util.async.StoppableObservable;
+
+/**
+ * Runs a producer action on a scheduler which emits through a backpressure-aware
+ * {@link AsyncEmitter} to the subscribers of the returned StoppableObservable.
+ * <p>
+ * The values are multicast: each one is delivered to all current subscribers once
+ * all of them have requested it. The values emitted while there are no subscribers
+ * are lost. An error, including the overflow of the BUFFER and ERROR strategies,
+ * is delivered without waiting for the queued values.
+ */
+public final class OperatorRunAsync {
+    /** The default maximum number of values queued for the subscribers. */
+    public static final int DEFAULT_CAPACITY = 128;
+    /** Utility class. */
+    private OperatorRunAsync() { throw new IllegalStateException("No instances!"); }
+    
+    /**
+     * Runs the action on the given scheduler and hands it an emitter which
+     * applies the overflow strategy to the values emitted without demand.
+     * @param <T> the value type
+     * @param scheduler the Scheduler where the action is executed
+     * @param strategy what to do with the values emitted without demand
+     * @param capacity the maximum number of values queued for the subscribers
+     * @param action the action to execute, receives the emitter and the Subscription which
+     *               lets it check for cancellation condition
+     * @return an Observable that provides a Subscription interface to cancel the action
+     */
+    public static <T> StoppableObservable<T> runAsync(Scheduler scheduler, 
+            OverflowStrategy strategy, int capacity,
+            final Action2<? super AsyncEmitter<T>, ? super Subscription> action) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity > 0 required but it was " + capacity);
+        }
+        SerialSubscription workers = new SerialSubscription();
+        final EmitterSubject<T> emitter = new EmitterSubject<T>(strategy, capacity);
+        final StopToken csub = new StopToken(workers, emitter);
+        emitter.token = csub;
+        
+        StoppableObservable<T> co = new StoppableObservable<T>(emitter, csub);
+        
+        final Worker inner = scheduler.createWorker();
+        workers.set(inner);
+        
+        inner.schedule(new Action0() {
+            @Override
+            public void call() {
+                try {
+                    if (!csub.isUnsubscribed()) {
+                        action.call(emitter, csub);
+                    }
+                } finally {
+                    csub.exited(0);
+                    // release the thread of the worker, the scheduler may have dedicated it
+                    inner.unsubscribe();
+                }
+            }
+        });
+        
+        return co;
+    }
+    
+    /**
+     * Runs the action on the given scheduler and hands it the subject which distributes
+     * the values to the subscribers of the returned StoppableObservable.
+     * @param <T> the output value of the action
+     * @param <U> the output type of the observable sequence
+     * @param scheduler the Scheduler where the action is executed
+     * @param subject the subject to use to distribute values emitted by the action
+     * @param action the action to execute, receives an Observer where the events can be pumped and a
+     *               Subscription which lets it check for cancellation condition
+     * @return an Observable that provides a Subscription interface to cancel the action
+     */
+    public static <T, U> StoppableObservable<U> runAsync(Scheduler scheduler,
+            final Subject<T, U> subject, 
+            final Action2<? super Observer<? super T>, ? super Subscription> action) {
+        SerialSubscription workers = new SerialSubscription();
+        final StopToken csub = new StopToken(workers, subject);
+        
+        StoppableObservable<U> co = new StoppableObservable<U>(new OnSubscribe<U>() {
+            @Override
+            public void call(Subscriber<? super U> t1) {
+                subject.subscribe(t1);
+            }
+        }, csub);
+        
+        final Worker inner = scheduler.createWorker();
+        workers.set(inner);
+        
+        inner.schedule(new Action0() {
+            @Override
+            public void call() {
+                try {
+                    if (!csub.isUnsubscribed()) {
+                        action.call(subject, csub);
+                    }
+                } finally {
+                    csub.exited(0);
+                    // release the thread of the worker, the scheduler may have dedicated it
+                    inner.unsubscribe();
+                }
+            }
+        });
+        
+        return co;
+    }
+    
+    /**
+     * Returns a Scheduler which runs each action started on it on a new thread of the
+     * given factory, which is terminated once the action returns or is stopped.
+     * @param threadFactory the factory of the threads
+     * @return the Scheduler
+     */
+    public static Scheduler dedicated(ThreadFactory threadFactory) {
+        return new DedicatedThreadScheduler(threadFactory);
+    }
+    
+    /**
+     * Returns a ThreadFactory which creates threads named with the given prefix
+     * and an increasing number, with the given priority and daemon flag.
+     * @param namePrefix the prefix of the thread names
+     * @param priority the priority of the threads
+     * @param daemon create daemon threads?
+     * @return the ThreadFactory
+     */
+    public static ThreadFactory threadFactory(final String namePrefix, final int priority, final boolean daemon) {
+        if (priority < Thread.MIN_PRIORITY || priority > Thread.MAX_PRIORITY) {
+            throw new IllegalArgumentException("priority out of range: " + priority);
+        }
+        final AtomicLong counter = new AtomicLong();
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, namePrefix + counter.incrementAndGet());
+                t.setPriority(priority);
+                t.setDaemon(daemon);
+                return t;
+            }
+        };
+    }
+    
+    /**
+     * Runs the action on the given scheduler and replays the last values it emitted,
+     * not older than the given age, to the late subscribers of the returned StoppableObservable.
+     * <p>
+     * The values are kept in a ring buffer allocated upfront and timestamped by the clock
+     * of the scheduler.
+     * @param <T> the value type
+     * @param scheduler the Scheduler where the action is executed
+     * @param size the maximum number of values replayed
+     * @param maxAge the maximum age of the values replayed, Long.MAX_VALUE for no limit
+     * @param unit the time unit of the age
+     * @param action the action to execute, receives an Observer where the events can be pumped and a
+     *               Subscription which lets it check for cancellation condition
+     * @return an Observable that provides a Subscription interface to cancel the action
+     */
+    public static <T> StoppableObservable<T> runAsyncReplay(Scheduler scheduler, int size, long maxAge, TimeUnit unit,
+            final Action2<? super Observer<? super T>, ? super Subscription> action) {
+        return runAsync(scheduler, ReplayRingSubject.<T>create(size, maxAge, unit, scheduler), action);
+    }
+    
+    /**
+     * Runs the action on {@code producers} workers of the given scheduler, each with its own
+     * shard index and Observer, and merges the values of the shards into the returned
+     * StoppableObservable.
+     * <p>
+     * Each shard Observer writes into its own single-producer queue which are merged by a
+     * single drain loop, so the producers don't contend with each other. The order of the
+     * values of a single shard is kept. The merged sequence completes once all shards
+     * completed and fails as soon as any shard fails.
+     * <p>
+     * The values are emitted as the subscribers request; a shard whose queue is full parks
+     * its producer with an increasing backoff until there is room again or the producers
+     * are stopped.
+     * @param <T> the value type
+     * @param scheduler the Scheduler where the action is executed
+     * @param producers the number of producers
+     * @param action the action to execute, receives the Observer of the shard, the Subscription
+     *               which lets it check for cancellation condition and the shard index
+     * @return an Observable that provides a Subscription interface to cancel the actions
+     */
+    public static <T> StoppableObservable<T> runAsyncParallel(Scheduler scheduler, int producers,
+            final Action3<? super Observer<? super T>, ? super Subscription, ? super Integer> action) {
+        if (producers <= 0) {
+            throw new IllegalArgumentException("producers > 0 required but it was " + producers);
+        }
+        CompositeSubscription workers = new CompositeSubscription();
+        MergeSubject<T> merge = new MergeSubject<T>(producers, DEFAULT_CAPACITY);
+        final StopToken csub = new StopToken(workers, merge.shards);
+        merge.token = csub;
+        
+        StoppableObservable<T> co = new StoppableObservable<T>(merge, csub);
+        
+        for (int i = 0; i < producers; i++) {
+            final ShardObserver<T> shard = merge.shards[i];
+            final int index = i;
+            final Worker inner = scheduler.createWorker();
+            workers.add(inner);
+            
+            inner.schedule(new Action0() {
+                @Override
+                public void call() {
+                    try {
+                        if (!csub.isUnsubscribed()) {
+                            action.call(shard, csub, index);
+                        }
+                    } finally {
+                        csub.exited(index);
+                        inner.unsubscribe();
+                    }
+                }
+            });
+        }
+        
+        return co;
+    }
+    
+    /**
+     * Queues the values of a single producer in a bounded single-producer
+     * single-consumer queue and drains them to the subscribers as they request.
+     * @param <T> the value type
+     */
+    static final class EmitterSubject<T> extends AtomicInteger implements AsyncEmitter<T>, OnSubscribe<T> {
+        /** */
+        private static final long serialVersionUID = 6454862380556434466L;
+        /** Stands for a null value in the queue. */
+        static final Object NULL = new Object();
+        @SuppressWarnings("rawtypes")
+        static final EmitterProducer[] EMPTY = new EmitterProducer[0];
+        @SuppressWarnings("rawtypes")
+        static final EmitterProducer[] TERMINATED = new EmitterProducer[0];
+        final OverflowStrategy strategy;
+        final int capacity;
+        /** Stops the producer when the emitter fails on overflow. */
+        Subscription token;
+        final SpscQueue<Object> queue;
+        /** The value kept by the LATEST strategy, null if none. */
+        final AtomicReference<Object> latest;
+        final AtomicReference<EmitterProducer<T>[]> subscribers;
+        /** The number of values queued, accessed only by the producer. */
+        long produced;
+        /** The number of values taken from the queue, written only by the drain loop. */
+        volatile long emitted;
+        @SuppressWarnings("rawtypes")
+        static final AtomicLongFieldUpdater<EmitterSubject> EMITTED
+                = AtomicLongFieldUpdater.newUpdater(EmitterSubject.class, "emitted");
+        volatile boolean done;
+        /** The terminal error, visible through done. */
+        Throwable error;
+        
+        @SuppressWarnings("unchecked")
+        public EmitterSubject(OverflowStrategy strategy, int capacity) {
+            this.strategy = strategy;
+            this.capacity = capacity;
+            this.queue = new SpscQueue<Object>(capacity);
+            this.latest = new AtomicReference<Object>();
+            this.subscribers = new AtomicReference<EmitterProducer<T>[]>(EMPTY);
+        }
+        
+        @Override
+        public void call(Subscriber<? super T> child) {
+            EmitterProducer<T> p = new EmitterProducer<T>(this, child);
+            child.add(p);
+            child.setProducer(p);
+            if (add(p)) {
+                if (p.isUnsubscribed()) {
+                    remove(p);
+                }
+                drain();
+            } else {
+                Throwable e = error;
+                if (e != null) {
+                    child.onError(e);
+                } else {
+                    child.onCompleted();
+                }
+            }
+        }
+        
+        boolean add(EmitterProducer<T> p) {
+            for (;;) {
+                EmitterProducer<T>[] a = subscribers.get();
+                if (a == TERMINATED) {
+                    return false;
+                }
+                int n = a.length;
+                @SuppressWarnings({ "unchecked", "rawtypes" })
+                EmitterProducer<T>[] b = new EmitterProducer[n + 1];
+                System.arraycopy(a, 0, b, 0, n);
+                b[n] = p;
+                if (subscribers.compareAndSet(a, b)) {
+                    return true;
+                }
+            }
+        }
+        
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        void remove(EmitterProducer<T> p) {
+            for (;;) {
+                EmitterProducer<T>[] a = subscribers.get();
+                int n = a.length;
+                int j = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == p) {
+                        j = i;
+                        break;
+                    }
+                }
+                if (j < 0) {
+                    return;
+                }
+                EmitterProducer<T>[] b;
+                if (n == 1) {
+                    b = EMPTY;
+                } else {
+                    b = new EmitterProducer[n - 1];
+                    System.arraycopy(a, 0, b, 0, j);
+                    System.arraycopy(a, j + 1, b, j, n - j - 1);
+                }
+                if (subscribers.compareAndSet(a, b)) {
+                    return;
+                }
+            }
+        }
+        
+        static long minRequested(EmitterProducer<?>[] a) {
+            long r = Long.MAX_VALUE;
+            for (EmitterProducer<?> p : a) {
+                r = Math.min(r, p.get());
+            }
+            return r;
+        }
+        
+        @Override
+        public long requested() {
+            EmitterProducer<T>[] a = subscribers.get();
+            if (a.length == 0) {
+                return 0L;
+            }
+            long r = Math.min(minRequested(a), capacity) - (produced - emitted);
+            return r < 0L ? 0L : r;
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            EmitterProducer<T>[] a = subscribers.get();
+            if (a.length == 0) {
+                // unobserved values are lost
+                return;
+            }
+            Object o = t == null ? NULL : t;
+            OverflowStrategy s = strategy;
+            // while a latest value waits, newer ones replace it to keep the order
+            if (s != OverflowStrategy.LATEST || latest.get() == null) {
+                long allowed = s == OverflowStrategy.BUFFER ? capacity : Math.min(minRequested(a), capacity);
+                if (produced - emitted < allowed) {
+                    queue.offer(o);
+                    produced++;
+                    drain();
+                    return;
+                }
+            }
+            switch (s) {
+            case DROP:
+                return;
+            case LATEST:
+                latest.set(o);
+                drain();
+                return;
+            default:
+                token.unsubscribe();
+                onError(new MissingBackpressureException());
+            }
+        }
+
+        @Override
+        public void onNextBatch(T[] values) {
+            onNextBatch(Arrays.asList(values));
+        }
+        
+        @Override
+        public void onNextBatch(List<? extends T> values) {
+            if (done) {
+                return;
+            }
+            EmitterProducer<T>[] a = subscribers.get();
+            if (a.length == 0) {
+                // unobserved values are lost
+                return;
+            }
+            int n = values.size();
+            int i = 0;
+            // with nothing queued, emit the requested part directly to each subscriber
+            if (latest.get() == null && get() == 0 && compareAndSet(0, 1)) {
+                if (queue.isEmpty()) {
+                    int k = (int)Math.min(minRequested(a), n);
+                    if (k != 0) {
+                        for (EmitterProducer<T> p : a) {
+                            Subscriber<? super T> child = p.child;
+                            for (int j = 0; j < k; j++) {
+                                child.onNext(values.get(j));
+                            }
+                            p.produced(k);
+                        }
+                        i = k;
+                    }
+                }
+                offerBatch(values, i, a);
+                drainLoop();
+            } else {
+                offerBatch(values, i, a);
+                drain();
+            }
+        }
+        
+        /** Queues the values from the given index as the demand allows and applies the strategy to the rest. */
+        void offerBatch(List<? extends T> values, int i, EmitterProducer<T>[] a) {
+            int n = values.size();
+            if (i == n) {
+                return;
+            }
+            OverflowStrategy s = strategy;
+            if (s != OverflowStrategy.LATEST || latest.get() == null) {
+                long allowed = s == OverflowStrategy.BUFFER ? capacity : Math.min(minRequested(a), capacity);
+                long room = allowed - (produced - emitted);
+                while (i < n && room > 0) {
+                    T t = values.get(i++);
+                    queue.offer(t == null ? NULL : t);
+                    produced++;
+                    room--;
+                }
+                if (i == n) {
+                    return;
+                }
+            }
+            switch (s) {
+            case DROP:
+                return;
+            case LATEST:
+                T t = values.get(n - 1);
+                latest.set(t == null ? NULL : t);
+                return;
+            default:
+                token.unsubscribe();
+                error = new MissingBackpressureException();
+                done = true;
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (done) {
+                return;
+            }
+            error = e;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onCompleted() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+        
+        boolean isEmpty() {
+            return queue.isEmpty() && latest.get() == null;
+        }
+        
+        void terminate() {
+            @SuppressWarnings("unchecked")
+            EmitterProducer<T>[] a = subscribers.getAndSet(TERMINATED);
+            Throwable e = error;
+            for (EmitterProducer<T> p : a) {
+                if (e != null) {
+                    p.child.onError(e);
+                } else {
+                    p.child.onCompleted();
+                }
+            }
+        }
+        
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            drainLoop();
+        }
+        
+        /** Emits the queued values, should be called by the thread which incremented the wip from zero. */
+        @SuppressWarnings("unchecked")
+        void drainLoop() {
+            int missed = 1;
+            for (;;) {
+                EmitterProducer<T>[] a = subscribers.get();
+                if (a == TERMINATED) {
+                    return;
+                }
+                long r = minRequested(a);
+                long e = 0L;
+                
+                while (e != r) {
+                    boolean d = done;
+                    if (d && error != null) {
+                        // errors cut ahead of the queued values
+                        queue.clear();
+                        latest.lazySet(null);
+                        terminate();
+                        return;
+                    }
+                    Object o = queue.poll();
+                    if (o != null) {
+                        EMITTED.lazySet(this, emitted + 1);
+                    } else {
+                        o = latest.getAndSet(null);
+                        if (o == null) {
+                            if (d) {
+                                terminate();
+                                return;
+                            }
+                            break;
+                        }
+                    }
+                    T v = o == NULL ? null : (T)o;
+                    for (EmitterProducer<T> p : a) {
+                        p.child.onNext(v);
+                    }
+                    e++;
+                }
+                
+                if (e == r && done && (error != null || isEmpty())) {
+                    queue.clear();
+                    latest.lazySet(null);
+                    terminate();
+                    return;
+                }
+                
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    for (EmitterProducer<T> p : a) {
+                        p.produced(e);
+                    }
+                }
+                
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Tracks the requests of one subscriber of the emitter.
+     * @param <T> the value type
+     */
+    static final class EmitterProducer<T> extends AtomicLong implements Producer, Subscription {
+        /** */
+        private static final long serialVersionUID = -6140706271926318455L;
+        final EmitterSubject<T> parent;
+        final Subscriber<? super T> child;
+        volatile boolean unsubscribed;
+
+        public EmitterProducer(EmitterSubject<T> parent, Subscriber<? super T> child) {
+            this.parent = parent;
+            this.child = child;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("n >= 0 required but it was " + n);
+            }
+            if (n == 0) {
+                return;
+            }
+            for (;;) {
+                long r = get();
+                if (r == Long.MAX_VALUE) {
+                    break;
+                }
+                long u = r + n;
+                if (u < 0L) {
+                    u = Long.MAX_VALUE;
+                }
+                if (compareAndSet(r, u)) {
+                    break;
+                }
+            }
+            parent.drain();
+        }
+        
+        void produced(long n) {
+            if (get() != Long.MAX_VALUE) {
+                addAndGet(-n);
+            }
+        }
+
+        @Override
+        public void unsubscribe() {
+            if (!unsubscribed) {
+                unsubscribed = true;
+                parent.remove(this);
+                // the minimum demand of the others may have grown
+                parent.drain();
+            }
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return unsubscribed;
+        }
+    }
+    
+    /**
+     * Merges the queues of the shards and multicasts their values to the subscribers
+     * as they request.
+     * @param <T> the value type
+     */
+    static final class MergeSubject<T> extends AtomicInteger implements OnSubscribe<T> {
+        /** */
+        private static final long serialVersionUID = -2925183914733296437L;
+        @SuppressWarnings("rawtypes")
+        static final MergeProducer[] EMPTY = new MergeProducer[0];
+        @SuppressWarnings("rawtypes")
+        static final MergeProducer[] TERMINATED = new MergeProducer[0];
+        final ShardObserver<T>[] shards;
+        final AtomicReference<MergeProducer<T>[]> subscribers;
+        /** The number of shards which haven't completed yet. */
+        final AtomicInteger remaining;
+        /** The first error of the shards. */
+        final AtomicReference<Throwable> error;
+        /** Releases the shards waiting for room once the producers are stopped. */
+        StopToken token;
+        
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public MergeSubject(int producers, int capacity) {
+            this.shards = new ShardObserver[producers];
+            for (int i = 0; i < producers; i++) {
+                shards[i] = new ShardObserver<T>(this, capacity);
+            }
+            this.subscribers = new AtomicReference<MergeProducer<T>[]>(EMPTY);
+            this.remaining = new AtomicInteger(producers);
+            this.error = new AtomicReference<Throwable>();
+        }
+        
+        @Override
+        public void call(Subscriber<? super T> child) {
+            MergeProducer<T> p = new MergeProducer<T>(this, child);
+            child.add(p);
+            child.setProducer(p);
+            if (add(p)) {
+                if (p.isUnsubscribed()) {
+                    remove(p);
+                }
+                drain();
+            } else {
+                Throwable e = error.get();
+                if (e != null) {
+                    child.onError(e);
+                } else {
+                    child.onCompleted();
+                }
+            }
+        }
+        
+        boolean add(MergeProducer<T> p) {
+            for (;;) {
+                MergeProducer<T>[] a = subscribers.get();
+                if (a == TERMINATED) {
+                    return false;
+                }
+                int n = a.length;
+                @SuppressWarnings({ "unchecked", "rawtypes" })
+                MergeProducer<T>[] b = new MergeProducer[n + 1];
+                System.arraycopy(a, 0, b, 0, n);
+                b[n] = p;
+                if (subscribers.compareAndSet(a, b)) {
+                    return true;
+                }
+            }
+        }
+        
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        void remove(MergeProducer<T> p) {
+            for (;;) {
+                MergeProducer<T>[] a = subscribers.get();
+                int n = a.length;
+                int j = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == p) {
+                        j = i;
+                        break;
+                    }
+                }
+                if (j < 0) {
+                    return;
+                }
+                MergeProducer<T>[] b;
+                if (n == 1) {
+                    b = EMPTY;
+                } else {
+                    b = new MergeProducer[n - 1];
+                    System.arraycopy(a, 0, b, 0, j);
+                    System.arraycopy(a, j + 1, b, j, n - j - 1);
+                }
+                if (subscribers.compareAndSet(a, b)) {
+                    return;
+                }
+            }
+        }
+        
+        static long minRequested(MergeProducer<?>[] a) {
+            long r = Long.MAX_VALUE;
+            for (MergeProducer<?> p : a) {
+                r = Math.min(r, p.get());
+            }
+            return r;
+        }
+        
+        void terminate() {
+            @SuppressWarnings("unchecked")
+            MergeProducer<T>[] a = subscribers.getAndSet(TERMINATED);
+            Throwable e = error.get();
+            for (MergeProducer<T> p : a) {
+                if (e != null) {
+                    p.child.onError(e);
+                } else {
+                    p.child.onCompleted();
+                }
+            }
+        }
+        
+        boolean isEmpty() {
+            for (ShardObserver<T> shard : shards) {
+                if (!shard.queue.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            ShardObserver<T>[] shards = this.shards;
+            for (;;) {
+                MergeProducer<T>[] a = subscribers.get();
+                if (a == TERMINATED) {
+                    return;
+                }
+                // unobserved values are lost
+                long r = a.length == 0 ? Long.MAX_VALUE : minRequested(a);
+                long e = 0L;
+                
+                // the shards are visited round-robin so a fast one can't starve the others
+                while (e != r) {
+                    boolean d = remaining.get() == 0;
+                    if (error.get() != null) {
+                        for (ShardObserver<T> shard : shards) {
+                            shard.queue.clear();
+                        }
+                        terminate();
+                        return;
+                    }
+                    boolean empty = true;
+                    for (ShardObserver<T> shard : shards) {
+                        if (e == r) {
+                            break;
+                        }
+                        Object o = shard.queue.poll();
+                        if (o != null) {
+                            empty = false;
+                            T v = o == EmitterSubject.NULL ? null : (T)o;
+                            for (MergeProducer<T> p : a) {
+                                p.child.onNext(v);
+                            }
+                            e++;
+                        }
+                    }
+                    if (empty) {
+                        if (d) {
+                            terminate();
+                            return;
+                        }
+                        break;
+                    }
+                }
+                
+                if (e == r) {
+                    if (error.get() != null) {
+                        for (ShardObserver<T> shard : shards) {
+                            shard.queue.clear();
+                        }
+                        terminate();
+                        return;
+                    }
+                    if (remaining.get() == 0 && isEmpty()) {
+                        terminate();
+                        return;
+                    }
+                }
+                
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    for (MergeProducer<T> p : a) {
+                        p.produced(e);
+                    }
+                }
+                
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Tracks the requests of one subscriber of the merged shards.
+     * @param <T> the value type
+     */
+    static final class MergeProducer<T> extends AtomicLong implements Producer, Subscription {
+        /** */
+        private static final long serialVersionUID = 2384017629318866253L;
+        final MergeSubject<T> parent;
+        final Subscriber<? super T> child;
+        volatile boolean unsubscribed;
+
+        public MergeProducer(MergeSubject<T> parent, Subscriber<? super T> child) {
+            this.parent = parent;
+            this.child = child;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("n >= 0 required but it was " + n);
+            }
+            if (n == 0) {
+                return;
+            }
+            for (;;) {
+                long r = get();
+                if (r == Long.MAX_VALUE) {
+                    break;
+                }
+                long u = r + n;
+                if (u < 0L) {
+                    u = Long.MAX_VALUE;
+                }
+                if (compareAndSet(r, u)) {
+                    break;
+                }
+            }
+            parent.drain();
+        }
+        
+        void produced(long n) {
+            if (get() != Long.MAX_VALUE) {
+                addAndGet(-n);
+            }
+        }
+
+        @Override
+        public void unsubscribe() {
+            if (!unsubscribed) {
+                unsubscribed = true;
+                parent.remove(this);
+                // the minimum demand of the others may have grown
+                parent.drain();
+            }
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return unsubscribed;
+        }
+    }
+    
+    /**
+     * The Observer of one producer, which queues its values for the merging drain loop.
+     * @param <T> the value type
+     */
+    static final class ShardObserver<T> implements Observer<T> {
+        /** The first wait for room in a full queue. */
+        static final long MIN_BACKOFF_NANOS = 1000L;
+        /** The longest wait for room in a full queue. */
+        static final long MAX_BACKOFF_NANOS = 1000000L;
+        final MergeSubject<T> parent;
+        final SpscQueue<Object> queue;
+        boolean done;
+        
+        public ShardObserver(MergeSubject<T> parent, int capacity) {
+            this.parent = parent;
+            this.queue = new SpscQueue<Object>(capacity);
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                return;
+            }
+            Object o = t == null ? EmitterSubject.NULL : t;
+            MergeSubject<T> p = parent;
+            // a full queue waits for the subscribers to request more, backing off up to a millisecond
+            long backoff = MIN_BACKOFF_NANOS;
+            while (!queue.offer(o)) {
+                if (p.error.get() != null || p.token.get() == StopToken.STOPPED) {
+                    return;
+                }
+                p.drain();
+                LockSupport.parkNanos(backoff);
+                backoff = Math.min(backoff << 1, MAX_BACKOFF_NANOS);
+            }
+            p.drain();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (done) {
+                return;
+            }
+            done = true;
+            parent.error.compareAndSet(null, e);
+            parent.drain();
+        }
+
+        @Override
+        public void onCompleted() {
+            if (done) {
+                return;
+            }
+            done = true;
+            parent.remaining.decrementAndGet();
+            parent.drain();
+        }
+    }
+}
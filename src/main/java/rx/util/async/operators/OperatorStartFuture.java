@@ -16,10 +16,14 @@
 package rx.util.async.operators;
 
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import rx.Observable;
+import rx.Observable.OnSubscribe;
 import rx.Scheduler;
+import rx.Subscriber;
 import rx.functions.Func0;
+import rx.functions.Func1;
 
 /**
  * Start an asynchronous Future immediately and observe its result through
@@ -38,13 +42,28 @@ public final class OperatorStartFuture {
      * @return the observable
      */
     public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync) {
+        return startFuture(functionAsync, true);
+    }
+    /**
+     * Invokes the asynchronous function, surfacing the result through an observable sequence
+     * and cancelling the Future if the subscriber unsubscribes before it completes.
+     * <p>
+     * <em>Important note</em> subscribing to the resulting observable blocks until
+     * the future completes.
+     * @param <T> the result type
+     * @param functionAsync the asynchronous function to run
+     * @param mayInterruptIfRunning the value to pass to {@link Future#cancel(boolean)} on unsubscription
+     * @return the observable
+     */
+    public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync,
+            boolean mayInterruptIfRunning) {
         Future<? extends T> task;
         try {
             task = functionAsync.call();
         } catch (Throwable t) {
             return Observable.error(t);
         }
-        return Observable.from(task);
+        return Observable.create(new OnSubscribeFuture<T>(task, mayInterruptIfRunning, null));
     }
     /**
      * Invokes the asynchronous function, surfacing the result through an observable sequence
@@ -56,12 +75,129 @@ public final class OperatorStartFuture {
      */
     public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync,
             Scheduler scheduler) {
+        return startFuture(functionAsync, true, scheduler);
+    }
+    /**
+     * Invokes the asynchronous function, surfacing the result through an observable sequence
+     * running on the given scheduler and cancelling the Future if the subscriber unsubscribes
+     * before it completes.
+     * @param <T> the result type
+     * @param functionAsync the asynchronous function to run
+     * @param mayInterruptIfRunning the value to pass to {@link Future#cancel(boolean)} on unsubscription
+     * @param scheduler the scheduler where the completion of the Future is awaited
+     * @return the observable
+     */
+    public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync,
+            boolean mayInterruptIfRunning,
+            Scheduler scheduler) {
         Future<? extends T> task;
         try {
             task = functionAsync.call();
         } catch (Throwable t) {
             return Observable.error(t);
         }
-        return Observable.from(task, scheduler);
+        return Observable.create(new OnSubscribeFuture<T>(task, mayInterruptIfRunning, scheduler));
+    }
+    
+    /**
+     * Invokes the asynchronous function, surfacing the result through an observable sequence
+     * which fails with a {@link java.util.concurrent.TimeoutException} if the Future doesn't
+     * complete within the given time since this method was called.
+     * <p>
+     * <em>Important note</em> subscribing to the resulting observable blocks until
+     * the future completes, is cancelled or the timeout elapses.
+     * @param <T> the result type
+     * @param functionAsync the asynchronous function to run
+     * @param timeout the time after which the Future is considered timed out
+     * @param unit the time unit of the timeout
+     * @param cancelOnTimeout cancel the Future if it doesn't complete in time?
+     * @return the observable
+     */
+    public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync,
+            long timeout, TimeUnit unit, boolean cancelOnTimeout) {
+        return startFuture(functionAsync, timeout, unit, cancelOnTimeout, null);
+    }
+    /**
+     * Invokes the asynchronous function, surfacing the result through an observable sequence
+     * running on the given scheduler which fails with a {@link java.util.concurrent.TimeoutException}
+     * if the Future doesn't complete within the given time since this method was called.
+     * @param <T> the result type
+     * @param functionAsync the asynchronous function to run
+     * @param timeout the time after which the Future is considered timed out
+     * @param unit the time unit of the timeout
+     * @param cancelOnTimeout cancel the Future if it doesn't complete in time?
+     * @param scheduler the scheduler where the completion of the Future is awaited,
+     * null to await it on the subscribing thread
+     * @return the observable
+     */
+    public static <T> Observable<T> startFuture(Func0<? extends Future<? extends T>> functionAsync,
+            long timeout, TimeUnit unit, boolean cancelOnTimeout, Scheduler scheduler) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Future<? extends T> task;
+        try {
+            task = functionAsync.call();
+        } catch (Throwable t) {
+            return Observable.error(t);
+        }
+        return Observable.create(new OnSubscribeFuture<T>(task, true, cancelOnTimeout, deadline, scheduler));
+    }
+    
+    /**
+     * Invokes the asynchronous functions emitted by the source, keeping at most the given
+     * number of their Futures pending at once, and surfaces their results through an
+     * observable sequence in completion order.
+     * <p>
+     * The next function is requested from the source, and thus invoked, only after a pending
+     * Future has completed and its value has been requested by the downstream.
+     * @param <T> the result type
+     * @param functionsAsync the source of the asynchronous functions to run
+     * @param maxOutstanding the maximum number of pending Futures
+     * @param scheduler the scheduler where the completion of the Futures is awaited
+     * @return the observable
+     */
+    public static <T> Observable<T> startFutures(
+            Observable<? extends Func0<? extends Future<? extends T>>> functionsAsync,
+            int maxOutstanding, final Scheduler scheduler) {
+        if (maxOutstanding <= 0) {
+            throw new IllegalArgumentException("maxOutstanding > 0 required but it was " + maxOutstanding);
+        }
+        return Observable.merge(functionsAsync.map(new Func1<Func0<? extends Future<? extends T>>, Observable<T>>() {
+            @Override
+            public Observable<T> call(Func0<? extends Future<? extends T>> t1) {
+                return startFuture(t1, scheduler);
+            }
+        }), maxOutstanding);
+    }
+    
+    /**
+     * Awaits the completion of a Future and emits its value.
+     * @param <T> the result type
+     */
+    static final class OnSubscribeFuture<T> extends FutureAwaiter<T, T> implements OnSubscribe<T> {
+        final Future<? extends T> future;
+        /** The System.nanoTime() deadline shared by all subscribers. */
+        final long deadline;
+
+        public OnSubscribeFuture(Future<? extends T> future, boolean mayInterruptIfRunning, Scheduler scheduler) {
+            this(future, mayInterruptIfRunning, false, NO_DEADLINE, scheduler);
+        }
+
+        public OnSubscribeFuture(Future<? extends T> future, boolean mayInterruptIfRunning, 
+                boolean cancelOnTimeout, long deadline, Scheduler scheduler) {
+            super(mayInterruptIfRunning, cancelOnTimeout, scheduler);
+            this.future = future;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void call(Subscriber<? super T> t1) {
+            await(t1, future, deadline);
+        }
+        
+        @Override
+        void onValue(Subscriber<? super T> t1, T value) {
+            t1.onNext(value);
+            t1.onCompleted();
+        }
     }
 }
@@ -0,0 +1,290 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.exceptions.CompositeException;
+import rx.functions.Action0;
+import rx.functions.Action1;
+
+/**
+ * Convert the observation of a source observable into a Future which is
+ * completed directly by the terminal event of the source.
+ * <p>
+ * Unlike {@link OperatorForEachFuture}, the returned Future doesn't have to
+ * be run or scheduled and no thread is blocked while the source is active;
+ * only callers of {@code get()} wait. Cancelling the Future unsubscribes
+ * from the source.
+ */
+public final class OperatorToFuture {
+    /** Utility class. */
+    private OperatorToFuture() { throw new IllegalStateException("No instances!"); }
+
+    /**
+     * Subscribes to the given source and returns a Future which completes
+     * with the last value emitted by it.
+     * @param <T> the element type of the Observable
+     * @param source the source Observable
+     * @return the Future completed with the last value of the source
+     */
+    public static <T> Future<T> toFuture(Observable<? extends T> source) {
+        ValueFuture<T> f = new ValueFuture<T>();
+        source.last().unsafeSubscribe(f);
+        return f;
+    }
+
+    /**
+     * Subscribes to the given source and returns a Future which completes
+     * with the single value emitted by it or fails if the source emits
+     * zero or more than one value.
+     * @param <T> the element type of the Observable
+     * @param source the source Observable
+     * @return the Future completed with the single value of the source
+     */
+    public static <T> Future<T> toFutureSingle(Observable<? extends T> source) {
+        ValueFuture<T> f = new ValueFuture<T>();
+        source.single().unsafeSubscribe(f);
+        return f;
+    }
+
+    /**
+     * Subscribes to the given source and returns a Future which completes
+     * with the list of all values emitted by it.
+     * @param <T> the element type of the Observable
+     * @param source the source Observable
+     * @return the Future completed with the values of the source
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Future<List<T>> toFutureList(Observable<? extends T> source) {
+        ValueFuture<List<T>> f = new ValueFuture<List<T>>();
+        // Observable is covariant in its element type
+        ((Observable<T>)source).toList().unsafeSubscribe(f);
+        return f;
+    }
+
+    /**
+     * Subscribes to the given source and calls the callback for each emitted item,
+     * and surfaces the completion or error through a Future.
+     * @param <T> the element type of the Observable
+     * @param source the source Observable
+     * @param onNext the action to call with each emitted element
+     * @param onError the action to call when an exception is emitted
+     * @param onCompleted the action to call when the source completes
+     * @return the Future representing the entire for-each operation
+     */
+    public static <T> Future<Void> forEach(
+            Observable<? extends T> source,
+            Action1<? super T> onNext,
+            Action1<? super Throwable> onError,
+            Action0 onCompleted) {
+        ForEachFuture<T> f = new ForEachFuture<T>(onNext, onError, onCompleted);
+        source.unsafeSubscribe(f);
+        return f;
+    }
+
+    /**
+     * A Subscriber which is also a Future and gets completed by
+     * the terminal events.
+     * @param <T> the observed value type
+     * @param <R> the result type of the Future
+     */
+    abstract static class SubscriberFuture<T, R> extends Subscriber<T> implements Future<R> {
+        /** The state before a terminal event or cancellation. */
+        static final int ACTIVE = 0;
+        /** The state after a value or an error has been set. */
+        static final int DONE = 1;
+        /** The state after a successful cancellation. */
+        static final int CANCELLED = 2;
+        /** Released once the state leaves ACTIVE. */
+        final CountDownLatch latch = new CountDownLatch(1);
+        /** Holds the current state. */
+        final AtomicInteger state = new AtomicInteger();
+        /** The result value, visible to waiters through the latch. */
+        R value;
+        /** The failure, visible to waiters through the latch. */
+        Throwable error;
+        /**
+         * Try to move into the completed state with the given value and unsubscribe.
+         * @param v the value
+         * @return true if succeeded, false if this future has already terminated
+         */
+        protected boolean complete(R v) {
+            if (state.compareAndSet(ACTIVE, DONE)) {
+                value = v;
+                latch.countDown();
+                // release the source, the subscriber is not wrapped into a SafeSubscriber
+                unsubscribe();
+                return true;
+            }
+            return false;
+        }
+        /**
+         * Try to move into the failed state with the given exception and unsubscribe.
+         * @param e the exception
+         * @return true if succeeded, false if this future has already terminated
+         */
+        protected boolean fail(Throwable e) {
+            if (state.compareAndSet(ACTIVE, DONE)) {
+                error = e;
+                latch.countDown();
+                // release the source, the subscriber is not wrapped into a SafeSubscriber
+                unsubscribe();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (state.compareAndSet(ACTIVE, CANCELLED)) {
+                unsubscribe();
+                latch.countDown();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state.get() != ACTIVE;
+        }
+
+        @Override
+        public R get() throws InterruptedException, ExecutionException {
+            latch.await();
+            return report();
+        }
+
+        @Override
+        public R get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (!latch.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            return report();
+        }
+        /** Returns the value or throws the failure, should be called after the latch is released. */
+        R report() throws ExecutionException {
+            if (state.get() == CANCELLED) {
+                throw new CancellationException();
+            }
+            Throwable e = error;
+            if (e != null) {
+                throw new ExecutionException(e);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Completes with the value of a source which emits at most one value.
+     * @param <T> the value type
+     */
+    static final class ValueFuture<T> extends SubscriberFuture<T, T> {
+        T last;
+        @Override
+        public void onNext(T t) {
+            last = t;
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            fail(e);
+        }
+
+        @Override
+        public void onCompleted() {
+            complete(last);
+        }
+    }
+
+    /**
+     * Calls the actions for each event and completes when the source terminates.
+     * <p>
+     * Subscribed to without the safe wrapper like the other futures, it guards the
+     * actions itself; a failing onError action fails the future with both errors.
+     * @param <T> the observed value type
+     */
+    static final class ForEachFuture<T> extends SubscriberFuture<T, Void> {
+        final Action1<? super T> onNext;
+        final Action1<? super Throwable> onError;
+        final Action0 onCompleted;
+
+        public ForEachFuture(Action1<? super T> onNext,
+                Action1<? super Throwable> onError,
+                Action0 onCompleted) {
+            this.onNext = onNext;
+            this.onError = onError;
+            this.onCompleted = onCompleted;
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (isDone()) {
+                return;
+            }
+            try {
+                onNext.call(t);
+            } catch (Throwable e) {
+                unsubscribe();
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (isDone()) {
+                return;
+            }
+            Throwable error = e;
+            try {
+                onError.call(e);
+            } catch (Throwable ex) {
+                error = new CompositeException(Arrays.asList(e, ex));
+            }
+            fail(error);
+        }
+
+        @Override
+        public void onCompleted() {
+            if (isDone()) {
+                return;
+            }
+            try {
+                onCompleted.call();
+            } catch (Throwable e) {
+                fail(e);
+                return;
+            }
+            complete(null);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+/**
+ * Specifies what an {@link AsyncEmitter} does with a value emitted while the
+ * subscribers have no outstanding demand for it.
+ */
+public enum OverflowStrategy {
+    /** 
+     * Queue the value up to the configured capacity, then fail with a 
+     * {@link rx.exceptions.MissingBackpressureException}. 
+     */
+    BUFFER,
+    /** Drop the value. */
+    DROP,
+    /** Keep only the latest value and emit it once there is demand. */
+    LATEST,
+    /** Fail with a {@link rx.exceptions.MissingBackpressureException}. */
+    ERROR
+}
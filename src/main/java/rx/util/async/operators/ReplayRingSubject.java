@@ -0,0 +1,366 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import rx.Observable.OnSubscribe;
+import rx.Producer;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.exceptions.MissingBackpressureException;
+import rx.subjects.Subject;
+
+/**
+ * A Subject which replays the last values, bounded by count and optionally by age,
+ * to late subscribers from a ring buffer allocated upfront.
+ * <p>
+ * The values are written by a single producer, the Observer methods must be called
+ * serially. Each subscriber reads the ring at its own pace; one which falls more than
+ * the ring size behind fails with a MissingBackpressureException.
+ * @param <T> the value type
+ */
+final class ReplayRingSubject<T> extends Subject<T, T> {
+    /**
+     * Creates a subject replaying at most the given number of values not older than
+     * the given age.
+     * @param <T> the value type
+     * @param size the maximum number of values replayed
+     * @param maxAge the maximum age of the values replayed, Long.MAX_VALUE for no limit
+     * @param unit the time unit of the age
+     * @param scheduler the scheduler whose clock timestamps the values
+     * @return the subject
+     */
+    static <T> ReplayRingSubject<T> create(int size, long maxAge, TimeUnit unit, Scheduler scheduler) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size > 0 required but it was " + size);
+        }
+        long maxAgeMillis = maxAge == Long.MAX_VALUE ? Long.MAX_VALUE : unit.toMillis(maxAge);
+        return new ReplayRingSubject<T>(new RingState<T>(size, maxAgeMillis, scheduler));
+    }
+    
+    final RingState<T> state;
+    
+    private ReplayRingSubject(RingState<T> state) {
+        super(state);
+        this.state = state;
+    }
+    
+    @Override
+    public boolean hasObservers() {
+        return state.subscribers.get().length != 0;
+    }
+
+    @Override
+    public void onNext(T t) {
+        state.onNext(t);
+    }
+
+    @Override
+    public void onError(Throwable e) {
+        state.onError(e);
+    }
+
+    @Override
+    public void onCompleted() {
+        state.onCompleted();
+    }
+    
+    /**
+     * The ring buffer and the subscribers of the subject.
+     * @param <T> the value type
+     */
+    static final class RingState<T> implements OnSubscribe<T> {
+        @SuppressWarnings("rawtypes")
+        static final RingProducer[] EMPTY = new RingProducer[0];
+        /** The maximum number of values replayed. */
+        final int size;
+        /** The number of slots, one more than the size so the producer never overwrites a replayed slot. */
+        final int capacity;
+        final long maxAgeMillis;
+        final Scheduler scheduler;
+        final AtomicReferenceArray<Object> values;
+        /** The timestamps of the values, allocated only with an age limit. */
+        final AtomicLongArray times;
+        final AtomicReference<RingProducer<T>[]> subscribers;
+        /** The number of values written so far. */
+        volatile long written;
+        /** The terminal error, visible through done. */
+        Throwable error;
+        volatile boolean done;
+        
+        @SuppressWarnings("unchecked")
+        public RingState(int size, long maxAgeMillis, Scheduler scheduler) {
+            this.size = size;
+            this.capacity = size + 1;
+            this.maxAgeMillis = maxAgeMillis;
+            this.scheduler = scheduler;
+            this.values = new AtomicReferenceArray<Object>(capacity);
+            this.times = maxAgeMillis != Long.MAX_VALUE ? new AtomicLongArray(capacity) : null;
+            this.subscribers = new AtomicReference<RingProducer<T>[]>(EMPTY);
+        }
+        
+        @Override
+        public void call(Subscriber<? super T> child) {
+            RingProducer<T> p = new RingProducer<T>(this, child, first());
+            child.add(p);
+            add(p);
+            if (p.isUnsubscribed()) {
+                remove(p);
+                return;
+            }
+            child.setProducer(p);
+        }
+        
+        /** Returns the index of the oldest value to replay. */
+        long first() {
+            long w = written;
+            long start = Math.max(0L, w - size);
+            if (times != null) {
+                long limit = scheduler.now() - maxAgeMillis;
+                while (start < w && times.get((int)(start % capacity)) < limit) {
+                    start++;
+                }
+            }
+            // skip what the producer overwrote meanwhile
+            return Math.max(start, written - size);
+        }
+        
+        void add(RingProducer<T> p) {
+            for (;;) {
+                RingProducer<T>[] a = subscribers.get();
+                int n = a.length;
+                @SuppressWarnings({ "unchecked", "rawtypes" })
+                RingProducer<T>[] b = new RingProducer[n + 1];
+                System.arraycopy(a, 0, b, 0, n);
+                b[n] = p;
+                if (subscribers.compareAndSet(a, b)) {
+                    return;
+                }
+            }
+        }
+        
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        void remove(RingProducer<T> p) {
+            for (;;) {
+                RingProducer<T>[] a = subscribers.get();
+                int n = a.length;
+                int j = -1;
+                for (int i = 0; i < n; i++) {
+                    if (a[i] == p) {
+                        j = i;
+                        break;
+                    }
+                }
+                if (j < 0) {
+                    return;
+                }
+                RingProducer<T>[] b;
+                if (n == 1) {
+                    b = EMPTY;
+                } else {
+                    b = new RingProducer[n - 1];
+                    System.arraycopy(a, 0, b, 0, j);
+                    System.arraycopy(a, j + 1, b, j, n - j - 1);
+                }
+                if (subscribers.compareAndSet(a, b)) {
+                    return;
+                }
+            }
+        }
+        
+        void onNext(T t) {
+            if (done) {
+                return;
+            }
+            long w = written;
+            int idx = (int)(w % capacity);
+            if (times != null) {
+                times.lazySet(idx, scheduler.now());
+            }
+            values.set(idx, t);
+            written = w + 1;
+            for (RingProducer<T> p : subscribers.get()) {
+                p.drain();
+            }
+        }
+        
+        void onError(Throwable e) {
+            if (done) {
+                return;
+            }
+            error = e;
+            done = true;
+            for (RingProducer<T> p : subscribers.get()) {
+                p.drain();
+            }
+        }
+        
+        void onCompleted() {
+            if (done) {
+                return;
+            }
+            done = true;
+            for (RingProducer<T> p : subscribers.get()) {
+                p.drain();
+            }
+        }
+    }
+    
+    /**
+     * Replays the ring to one subscriber as it requests.
+     * @param <T> the value type
+     */
+    static final class RingProducer<T> extends AtomicLong implements Producer, Subscription {
+        /** */
+        private static final long serialVersionUID = 2598617446937429447L;
+        final RingState<T> state;
+        final Subscriber<? super T> child;
+        final AtomicInteger wip;
+        /** The index of the next value to emit, accessed by the drain loop. */
+        long index;
+        volatile boolean unsubscribed;
+        
+        public RingProducer(RingState<T> state, Subscriber<? super T> child, long index) {
+            this.state = state;
+            this.child = child;
+            this.index = index;
+            this.wip = new AtomicInteger();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("n >= 0 required but it was " + n);
+            }
+            if (n == 0) {
+                return;
+            }
+            for (;;) {
+                long r = get();
+                if (r == Long.MAX_VALUE) {
+                    break;
+                }
+                long u = r + n;
+                if (u < 0L) {
+                    u = Long.MAX_VALUE;
+                }
+                if (compareAndSet(r, u)) {
+                    break;
+                }
+            }
+            drain();
+        }
+        
+        @SuppressWarnings("unchecked")
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            RingState<T> s = state;
+            int capacity = s.capacity;
+            int missed = 1;
+            for (;;) {
+                if (unsubscribed) {
+                    return;
+                }
+                long r = get();
+                long e = 0L;
+                long i = index;
+                
+                while (e != r) {
+                    boolean d = s.done;
+                    long w = s.written;
+                    if (i == w) {
+                        if (d) {
+                            terminate();
+                            return;
+                        }
+                        break;
+                    }
+                    Object o = s.values.get((int)(i % capacity));
+                    // the slot is valid if the producer didn't start overwriting it
+                    if (s.written - i >= capacity) {
+                        overflow();
+                        return;
+                    }
+                    child.onNext((T)o);
+                    if (unsubscribed) {
+                        return;
+                    }
+                    i++;
+                    e++;
+                }
+                
+                if (e == r) {
+                    if (s.done && i == s.written) {
+                        terminate();
+                        return;
+                    }
+                }
+                
+                index = i;
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    addAndGet(-e);
+                }
+                
+                if (s.written - i > capacity) {
+                    overflow();
+                    return;
+                }
+                
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+        
+        void overflow() {
+            unsubscribe();
+            child.onError(new MissingBackpressureException());
+        }
+        
+        void terminate() {
+            unsubscribe();
+            Throwable e = state.error;
+            if (e != null) {
+                child.onError(e);
+            } else {
+                child.onCompleted();
+            }
+        }
+
+        @Override
+        public void unsubscribe() {
+            if (!unsubscribed) {
+                unsubscribed = true;
+                state.remove(this);
+            }
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return unsubscribed;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded single-producer single-consumer queue.
+ * <p>
+ * The slots themselves signal whether they are occupied, so the producer
+ * and the consumer each keep their own index in a plain field and never
+ * read the other's. Only one thread may call {@link #offer(Object)} and
+ * only one thread may call {@link #poll()} at a time. Null values are not
+ * allowed.
+ * @param <T> the element type
+ */
+final class SpscQueue<T> {
+    final AtomicReferenceArray<T> buffer;
+    final int mask;
+    /** Accessed only by the producer. */
+    long producerIndex;
+    /** Accessed only by the consumer. */
+    long consumerIndex;
+
+    /**
+     * Creates a queue which holds at least the given number of elements.
+     * @param capacity the minimum capacity, rounded up to the next power of 2
+     */
+    public SpscQueue(int capacity) {
+        int c = 1;
+        while (c < capacity) {
+            c <<= 1;
+        }
+        this.buffer = new AtomicReferenceArray<T>(c);
+        this.mask = c - 1;
+    }
+    /**
+     * Offers an element, called by the producer.
+     * @param value the element, not null
+     * @return false if the queue is full
+     */
+    public boolean offer(T value) {
+        int idx = (int)producerIndex & mask;
+        if (buffer.get(idx) != null) {
+            return false;
+        }
+        buffer.lazySet(idx, value);
+        producerIndex++;
+        return true;
+    }
+    /**
+     * Polls an element, called by the consumer.
+     * @return the element or null if the queue is empty
+     */
+    public T poll() {
+        int idx = (int)consumerIndex & mask;
+        T v = buffer.get(idx);
+        if (v != null) {
+            buffer.lazySet(idx, null);
+            consumerIndex++;
+        }
+        return v;
+    }
+    /**
+     * Checks if the queue is empty, called by the consumer.
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty() {
+        return buffer.get((int)consumerIndex & mask) == null;
+    }
+    /** Drops the elements, called by the consumer. */
+    public void clear() {
+        while (poll() != null) { }
+    }
+}
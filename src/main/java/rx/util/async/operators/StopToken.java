@@ -0,0 +1,277 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import rx.Observable;
+import rx.Observer;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.subscriptions.CompositeSubscription;
+
+/**
+ * The cancellation token of the runAsync producers which also supports a graceful stop.
+ * <p>
+ * Unsubscribing stops the workers of the producers immediately. A graceful stop
+ * instead makes the token report itself as unsubscribed, so the producers stop
+ * accepting new work, waits for each producer action to return and then completes
+ * its Observer, which lets the queued values flush to the subscribers.
+ * <p>
+ * The token is the Subscription handed to the producer actions. Checking
+ * {@link #isUnsubscribed()} is a single volatile read, cheap enough for tight loops;
+ * actions blocked in I/O can instead register a callback with {@link #onStop(Action0)}
+ * which closes the resource they wait on.
+ */
+public final class StopToken extends AtomicInteger implements Subscription {
+    /** */
+    private static final long serialVersionUID = -8197427435758618407L;
+    /** The producers are running. */
+    static final int ACTIVE = 0;
+    /** The producers were asked to stop and their Observers get completed. */
+    static final int STOPPING = 1;
+    /** The workers have been unsubscribed. */
+    static final int STOPPED = 2;
+    /** The producer action is running or hasn't started yet. */
+    static final int RUNNING = 0;
+    /** The producer action has returned. */
+    static final int EXITED = 1;
+    /** The Observer of the producer has been completed by the graceful stop. */
+    static final int CLOSED = 2;
+    /** The workers of the producers. */
+    final Subscription workers;
+    /** The Observers the producers emit into. */
+    final Observer<?>[] observers;
+    /** The RUNNING, EXITED or CLOSED state of each producer. */
+    final AtomicIntegerArray exits;
+    /** The future of the first graceful stop. */
+    final AtomicReference<StopFuture> future;
+    /** The callbacks to run once a stop is requested. */
+    final CompositeSubscription callbacks;
+    
+    StopToken(Subscription workers, Observer<?>... observers) {
+        this.workers = workers;
+        this.observers = observers;
+        this.exits = new AtomicIntegerArray(observers.length);
+        this.future = new AtomicReference<StopFuture>();
+        this.callbacks = new CompositeSubscription();
+    }
+    
+    /**
+     * Stops the producers of the given source gracefully if the token supports it,
+     * otherwise unsubscribes the token and returns a completed Future.
+     * @param source the Observable of the producers
+     * @param token the cancellation token of the producers
+     * @param timeout the time to wait for the subscribers to receive the completion
+     * @param unit the time unit
+     * @return the Future completed once the subscribers received the completion
+     */
+    public static Future<Void> stopGracefully(Observable<?> source, Subscription token, long timeout, TimeUnit unit) {
+        if (token instanceof StopToken) {
+            return ((StopToken)token).stopGracefully(source, timeout, unit);
+        }
+        token.unsubscribe();
+        return OperatorToFuture.toFuture(Observable.<Void>just(null));
+    }
+    
+    /**
+     * Asks the producers to stop and completes their Observers once they have returned.
+     * <p>
+     * The returned Future fails with a TimeoutException and the workers are unsubscribed if 
+     * the subscribers don't receive the completion in time. Calling this method again returns
+     * the same Future.
+     * @param source the Observable of the producers
+     * @param timeout the time to wait for the subscribers to receive the completion
+     * @param unit the time unit
+     * @return the Future completed once the subscribers received the completion
+     */
+    Future<Void> stopGracefully(Observable<?> source, long timeout, TimeUnit unit) {
+        final StopFuture f = new StopFuture(this);
+        if (!future.compareAndSet(null, f)) {
+            return future.get();
+        }
+        if (!compareAndSet(ACTIVE, STOPPING)) {
+            // already stopped the hard way
+            f.cancel(false);
+            return f;
+        }
+        callbacks.unsubscribe();
+        source.unsafeSubscribe(f);
+        f.add(HashedWheelTimer.instance().schedule(new Action0() {
+            @Override
+            public void call() {
+                if (f.fail(new TimeoutException())) {
+                    unsubscribe();
+                }
+            }
+        }, timeout, unit));
+        for (int i = 0; i < observers.length; i++) {
+            close(i);
+        }
+        return f;
+    }
+    
+    /**
+     * Called by the producer once its action returned.
+     * @param index the index of the producer
+     */
+    void exited(int index) {
+        exits.set(index, EXITED);
+        if (get() == STOPPING) {
+            close(index);
+        }
+    }
+    
+    /** Completes the Observer of an exited producer once. */
+    void close(int index) {
+        if (exits.compareAndSet(index, EXITED, CLOSED)) {
+            observers[index].onCompleted();
+        }
+    }
+    
+    /**
+     * Registers an action to run once the graceful or the immediate stop is requested,
+     * or right away if it already has been.
+     * <p>
+     * The action runs on the thread which requested the stop. Unsubscribing the returned
+     * Subscription deregisters the action, for example once the resource it closes has
+     * been closed by the producer.
+     * @param action the action to run
+     * @return the Subscription to deregister the action
+     */
+    public Subscription onStop(Action0 action) {
+        StopCallback cb = new StopCallback(action);
+        callbacks.add(cb);
+        return new StopRegistration(callbacks, cb);
+    }
+    
+    /**
+     * Registers an action to run once the producers of the given token are asked to stop.
+     * @param token the cancellation token of the producers
+     * @param action the action to run
+     * @return the Subscription to deregister the action
+     * @throws IllegalArgumentException if the token doesn't support stop callbacks
+     * @see #onStop(Action0)
+     */
+    public static Subscription onStop(Subscription token, Action0 action) {
+        if (token instanceof StopToken) {
+            return ((StopToken)token).onStop(action);
+        }
+        throw new IllegalArgumentException("The token doesn't support stop callbacks: " + token);
+    }
+    
+    @Override
+    public boolean isUnsubscribed() {
+        // the workers are unsubscribed only through this token, the state alone tells
+        return get() != ACTIVE;
+    }
+    
+    @Override
+    public void unsubscribe() {
+        set(STOPPED);
+        callbacks.unsubscribe();
+        workers.unsubscribe();
+        StopFuture f = future.get();
+        if (f != null) {
+            f.cancel(false);
+        }
+    }
+    
+    /** Runs the callback action once, unless it has been deregistered before. */
+    static final class StopCallback extends AtomicReference<Action0> implements Subscription {
+        /** */
+        private static final long serialVersionUID = 4626219347911370472L;
+
+        public StopCallback(Action0 action) {
+            super(action);
+        }
+
+        @Override
+        public void unsubscribe() {
+            Action0 a = getAndSet(null);
+            if (a != null) {
+                a.call();
+            }
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return get() == null;
+        }
+    }
+    
+    /** Deregisters a callback without running it. */
+    static final class StopRegistration implements Subscription {
+        final CompositeSubscription callbacks;
+        final StopCallback callback;
+
+        public StopRegistration(CompositeSubscription callbacks, StopCallback callback) {
+            this.callbacks = callbacks;
+            this.callback = callback;
+        }
+
+        @Override
+        public void unsubscribe() {
+            if (callback.getAndSet(null) != null) {
+                callbacks.remove(callback);
+            }
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return callback.isUnsubscribed();
+        }
+    }
+    
+    /** Completes when the source terminates and releases the workers. */
+    static final class StopFuture extends OperatorToFuture.SubscriberFuture<Object, Void> {
+        final StopToken token;
+
+        public StopFuture(StopToken token) {
+            this.token = token;
+        }
+
+        @Override
+        public void onNext(Object t) {
+            // the values go to the other subscribers
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (fail(e)) {
+                release();
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            if (complete(null)) {
+                release();
+            }
+        }
+        
+        void release() {
+            unsubscribe();
+            token.set(STOPPED);
+            token.workers.unsubscribe();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.functions.Func2;
+import rx.functions.Func3;
+import rx.functions.Func4;
+import rx.functions.Func5;
+import rx.functions.Func6;
+import rx.functions.Func7;
+import rx.functions.Func8;
+import rx.functions.Func9;
+import rx.functions.FuncN;
+import rx.schedulers.Schedulers;
+import rx.util.async.functions.ThrowingFunc1;
+import rx.util.async.functions.ThrowingFunc2;
+import rx.util.async.functions.ThrowingFunc3;
+import rx.util.async.functions.ThrowingFuncN;
+
+/**
+ * Measures the cold start of the toAsync family: the latency of the first calls
+ * of every arity in a fresh JVM, and with {@link #main(String[])} the number of
+ * classes they load.
+ * <p>
+ * gradlew benchmarks "-Pjmh=-f 20 .*AsyncStartupPerf.*"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Thread)
+public class AsyncStartupPerf {
+    
+    @Benchmark
+    public void firstCalls(Blackhole bh) {
+        callAll(bh);
+    }
+    
+    /**
+     * Prints the number of classes loaded by the first calls.
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        // load the classes of the benchmark itself and of Observable up front
+        Observable.just(1).subscribe();
+        long before = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+        callAll(null);
+        long after = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+        System.out.println("Classes loaded by the first calls: " + (after - before));
+    }
+    
+    static void consume(Blackhole bh, Object o) {
+        if (bh != null) {
+            bh.consume(o);
+        }
+    }
+    
+    static void callAll(Blackhole bh) {
+        Scheduler s = Schedulers.immediate();
+        Func0<Integer> f0 = new Func0<Integer>() {
+            @Override
+            public Integer call() {
+                return 0;
+            }
+        };
+        Func1<Integer, Integer> f1 = new Func1<Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1) {
+                return t1;
+            }
+        };
+        Func2<Integer, Integer, Integer> f2 = new Func2<Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2) {
+                return t1;
+            }
+        };
+        Func3<Integer, Integer, Integer, Integer> f3 = new Func3<Integer, Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2, Integer t3) {
+                return t1;
+            }
+        };
+        Func4<Integer, Integer, Integer, Integer, Integer> f4 = new Func4<Integer, Integer, Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2, Integer t3, Integer t4) {
+                return t1;
+            }
+        };
+        Func5<Integer, Integer, Integer, Integer, Integer, Integer> f5 = 
+                new Func5<Integer, Integer, Integer, Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2, Integer t3, Integer t4, Integer t5) {
+                return t1;
+            }
+        };
+        Func6<Integer, Integer, Integer, Integer, Integer, Integer, Integer> f6 = 
+                new Func6<Integer, Integer, Integer, Integer, Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2, Integer t3, Integer t4, Integer t5, Integer t6) {
+                return t1;
+            }
+        };
+        Func7<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer> f7 = 
+                new Func7<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2, Integer t3, Integer t4, Integer t5, Integer t6, Integer t7) {
+                return t1;
+            }
+        };
+        Func8<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer> f8 = 
+                new Func8<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2, Integer t3, Integer t4, Integer t5, Integer t6, Integer t7, 
+                    Integer t8) {
+                return t1;
+            }
+        };
+        Func9<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer> f9 = 
+                new Func9<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2, Integer t3, Integer t4, Integer t5, Integer t6, Integer t7, 
+                    Integer t8, Integer t9) {
+                return t1;
+            }
+        };
+        FuncN<Integer> fn = new FuncN<Integer>() {
+            @Override
+            public Integer call(Object... args) {
+                return args.length;
+            }
+        };
+        ThrowingFunc1<Integer, Integer> tf1 = new ThrowingFunc1<Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1) throws Exception {
+                return t1;
+            }
+        };
+        ThrowingFunc2<Integer, Integer, Integer> tf2 = new ThrowingFunc2<Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2) throws Exception {
+                return t1;
+            }
+        };
+        ThrowingFunc3<Integer, Integer, Integer, Integer> tf3 = new ThrowingFunc3<Integer, Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2, Integer t3) throws Exception {
+                return t1;
+            }
+        };
+        ThrowingFuncN<Integer> tfn = new ThrowingFuncN<Integer>() {
+            @Override
+            public Integer call(Object... args) throws Exception {
+                return args.length;
+            }
+        };
+        
+        consume(bh, Async.toAsync(f0, s).call().toBlocking().single());
+        consume(bh, Async.toAsync(f1, s).call(1).toBlocking().single());
+        consume(bh, Async.toAsync(f2, s).call(1, 2).toBlocking().single());
+        consume(bh, Async.toAsync(f3, s).call(1, 2, 3).toBlocking().single());
+        consume(bh, Async.toAsync(f4, s).call(1, 2, 3, 4).toBlocking().single());
+        consume(bh, Async.toAsync(f5, s).call(1, 2, 3, 4, 5).toBlocking().single());
+        consume(bh, Async.toAsync(f6, s).call(1, 2, 3, 4, 5, 6).toBlocking().single());
+        consume(bh, Async.toAsync(f7, s).call(1, 2, 3, 4, 5, 6, 7).toBlocking().single());
+        consume(bh, Async.toAsync(f8, s).call(1, 2, 3, 4, 5, 6, 7, 8).toBlocking().single());
+        consume(bh, Async.toAsync(f9, s).call(1, 2, 3, 4, 5, 6, 7, 8, 9).toBlocking().single());
+        consume(bh, Async.toAsync(fn, s).call(1, 2, 3).toBlocking().single());
+        consume(bh, Async.toAsyncThrowing(tf1, s).call(1).toBlocking().single());
+        consume(bh, Async.toAsyncThrowing(tf2, s).call(1, 2).toBlocking().single());
+        consume(bh, Async.toAsyncThrowing(tf3, s).call(1, 2, 3).toBlocking().single());
+        consume(bh, Async.toAsyncThrowing(tfn, s).call(1, 2, 3).toBlocking().single());
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Func2;
+import rx.functions.Func9;
+import rx.schedulers.Schedulers;
+import rx.util.async.functions.ThrowingFunc2;
+import rx.util.async.functions.ThrowingFunc9;
+import rx.util.async.functions.ThrowingFunctions;
+
+/**
+ * Compares toAsyncThrowing, which carries the arguments in a single task, against
+ * the previous chain of a capturing Callable run through startCallable.
+ * <p>
+ * The immediate scheduler keeps the cost of the thread hop out of the measurement.
+ * <p>
+ * gradlew benchmarks "-Pjmh=-f 1 -tu s -bm thrpt -wi 5 -i 5 -r 1 -prof gc .*ToAsyncThrowingPerf.*"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class ToAsyncThrowingPerf {
+    ThrowingFunc2<Integer, Integer, Integer> func2;
+    ThrowingFunc9<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer> func9;
+    Func2<Integer, Integer, Observable<Integer>> async2;
+    Func9<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Observable<Integer>> async9;
+    Scheduler scheduler;
+    
+    @Setup
+    public void setup() {
+        scheduler = Schedulers.immediate();
+        func2 = new ThrowingFunc2<Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2) throws Exception {
+                return t1 + t2;
+            }
+        };
+        func9 = new ThrowingFunc9<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2, Integer t3, Integer t4, Integer t5, 
+                    Integer t6, Integer t7, Integer t8, Integer t9) throws Exception {
+                return t1 + t2 + t3 + t4 + t5 + t6 + t7 + t8 + t9;
+            }
+        };
+        async2 = Async.toAsyncThrowing(func2, scheduler);
+        async9 = Async.toAsyncThrowing(func9, scheduler);
+    }
+    
+    @Benchmark
+    public void task2(Blackhole bh) {
+        async2.call(1, 2).subscribe(new BlackholeSubscriber(bh));
+    }
+    
+    @Benchmark
+    public void callable2(Blackhole bh) {
+        Async.startCallable(ThrowingFunctions.toCallable(func2, 1, 2), scheduler)
+            .subscribe(new BlackholeSubscriber(bh));
+    }
+    
+    @Benchmark
+    public void task9(Blackhole bh) {
+        async9.call(1, 2, 3, 4, 5, 6, 7, 8, 9).subscribe(new BlackholeSubscriber(bh));
+    }
+    
+    @Benchmark
+    public void callable9(Blackhole bh) {
+        Async.startCallable(ThrowingFunctions.toCallable(func9, 1, 2, 3, 4, 5, 6, 7, 8, 9), scheduler)
+            .subscribe(new BlackholeSubscriber(bh));
+    }
+    
+    /** Consumes all events into a Blackhole. */
+    static final class BlackholeSubscriber extends Subscriber<Integer> {
+        final Blackhole bh;
+
+        public BlackholeSubscriber(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void onNext(Integer t) {
+            bh.consume(t);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            bh.consume(e);
+        }
+
+        @Override
+        public void onCompleted() {
+            bh.consume(true);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Func0;
+import rx.util.async.Async;
+
+/**
+ * Compares deferFuture against the previous implementation which flattened
+ * the single inner Observable with Observable.merge.
+ * <p>
+ * gradlew benchmarks "-Pjmh=-f 1 -tu s -bm thrpt -wi 5 -i 5 -r 1 .*OperatorDeferFuturePerf.*"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class OperatorDeferFuturePerf {
+    @Param({ "1", "1000" })
+    public int size;
+    
+    Func0<Future<Observable<Integer>>> factory;
+    
+    @Setup
+    public void setup() {
+        final Observable<Integer> source = size == 1 ? Observable.just(1) : Observable.range(1, size);
+        final FutureTask<Observable<Integer>> task = new FutureTask<Observable<Integer>>(new Callable<Observable<Integer>>() {
+            @Override
+            public Observable<Integer> call() throws Exception {
+                return source;
+            }
+        });
+        task.run();
+        factory = new Func0<Future<Observable<Integer>>>() {
+            @Override
+            public Future<Observable<Integer>> call() {
+                return task;
+            }
+        };
+    }
+    
+    @Benchmark
+    public void deferFuture(Blackhole bh) {
+        Async.deferFuture(factory).subscribe(new BlackholeSubscriber(bh));
+    }
+    
+    @Benchmark
+    public void mergeStartFuture(Blackhole bh) {
+        Observable.merge(Async.startFuture(factory)).subscribe(new BlackholeSubscriber(bh));
+    }
+    
+    /** Consumes all events into a Blackhole. */
+    static final class BlackholeSubscriber extends Subscriber<Integer> {
+        final Blackhole bh;
+
+        public BlackholeSubscriber(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void onNext(Integer t) {
+            bh.consume(t);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            bh.consume(e);
+        }
+
+        @Override
+        public void onCompleted() {
+            bh.consume(true);
+        }
+    }
+}
@@ -71,6 +71,8 @@ import rx.functions.FuncN;
 import rx.observers.TestObserver;
 import rx.schedulers.Schedulers;
 import rx.schedulers.TestScheduler;
+import rx.util.async.functions.IntFunc1;
+import rx.util.async.functions.ThrowingDoubleFunc1;
 import rx.util.async.functions.ThrowingFunc1;
 import rx.util.async.functions.ThrowingFunc2;
 import rx.util.async.functions.ThrowingFunc3;
@@ -81,6 +83,7 @@ import rx.util.async.functions.ThrowingFunc7;
 import rx.util.async.functions.ThrowingFunc8;
 import rx.util.async.functions.ThrowingFunc9;
 import rx.util.async.functions.ThrowingFuncN;
+import rx.util.async.functions.ThrowingLongFunc1;
 
 public class AsyncTest {
     @Mock
@@ -969,6 +972,63 @@ public class AsyncTest {
         verify(observer, never()).onCompleted();
     }
 
+    @Test
+    public void testIntFunc1() {
+        IntFunc1<Integer> func = spy(new IntFunc1<Integer>() {
+            @Override
+            public Integer call(int t1) {
+                return t1 * 2;
+            }
+        });
+        Observable<Integer> observable = 
+            Async.toAsyncInt(func, Schedulers.immediate())
+                     .call(21);
+
+        // Verifies that the returned Observable is "hot"
+        verify(func, times(1)).call(21);
+        
+        observable.subscribe(new TestObserver<Object>(observer));
+
+        verify(observer, never()).onError(any(Throwable.class));
+        verify(observer, times(1)).onNext(42);
+        verify(observer, times(1)).onCompleted();
+    }
+
+    @Test
+    public void testThrowingLongFunc1() throws Exception {
+        ThrowingLongFunc1<String> func = new ThrowingLongFunc1<String>() {
+            @Override
+            public String call(long t1) throws Exception {
+                return Long.toString(t1);
+            }
+        };
+        Async.toAsyncThrowingLong(func, Schedulers.immediate())
+             .call(Long.MAX_VALUE)
+             .subscribe(new TestObserver<Object>(observer));
+
+        verify(observer, never()).onError(any(Throwable.class));
+        verify(observer, times(1)).onNext(Long.toString(Long.MAX_VALUE));
+        verify(observer, times(1)).onCompleted();
+    }
+
+    @Test
+    public void testThrowingDoubleFunc1Throws() throws Exception {
+        final Exception exception = new Exception();
+        ThrowingDoubleFunc1<Double> func = new ThrowingDoubleFunc1<Double>() {
+            @Override
+            public Double call(double t1) throws Exception {
+                throw exception;
+            }
+        };
+        Async.toAsyncThrowingDouble(func, Schedulers.immediate())
+             .call(1.5)
+             .subscribe(new TestObserver<Object>(observer));
+
+        verify(observer, times(1)).onError(exception);
+        verify(observer, never()).onNext(Mockito.any());
+        verify(observer, never()).onCompleted();
+    }
+
     @Test
     public void testThrowingFunc2() throws Exception {
 	ThrowingFunc2<Integer, Integer, Integer> func = spy(new ThrowingFunc2<Integer, Integer, Integer>() {
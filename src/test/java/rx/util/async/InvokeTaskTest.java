@@ -0,0 +1,150 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.util.async.functions.ThrowingFunc3;
+import rx.util.async.functions.ThrowingFuncN;
+import rx.util.async.operators.TestException;
+
+public class InvokeTaskTest {
+    @Test
+    public void testInvokedOnceForAllSubscribers() {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicInteger calls = new AtomicInteger();
+        ThrowingFunc3<Integer, Integer, Integer, Integer> func = new ThrowingFunc3<Integer, Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2, Integer t3) throws Exception {
+                calls.incrementAndGet();
+                return t1 + t2 + t3;
+            }
+        };
+        
+        Observable<Integer> source = InvokeTask.start(func, 3, new Object[] { 1, 2, 3 }, scheduler);
+        
+        TestSubscriber<Integer> early = new TestSubscriber<Integer>();
+        source.subscribe(early);
+        
+        early.assertNoValues();
+        
+        scheduler.triggerActions();
+        
+        TestSubscriber<Integer> late = new TestSubscriber<Integer>();
+        source.subscribe(late);
+        
+        assertEquals(1, calls.get());
+        early.assertValue(6);
+        early.assertCompleted();
+        late.assertValue(6);
+        late.assertCompleted();
+    }
+    
+    @Test
+    public void testArityN() {
+        ThrowingFuncN<Integer> func = new ThrowingFuncN<Integer>() {
+            @Override
+            public Integer call(Object... args) throws Exception {
+                return args.length;
+            }
+        };
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        InvokeTask.<Integer>start(func, InvokeTask.ARITY_N, new Object[] { 1, 2, 3, 4 }, Schedulers.immediate())
+            .subscribe(ts);
+        
+        ts.assertValue(4);
+        ts.assertCompleted();
+    }
+    
+    @Test
+    public void testCallableThrows() {
+        Callable<Integer> func = new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                throw new TestException();
+            }
+        };
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        InvokeTask.<Integer>start(func, 0, null, Schedulers.immediate()).subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+    }
+    
+    @Test
+    public void testUnsubscribedSubscriberSkipped() {
+        TestScheduler scheduler = Schedulers.test();
+        Callable<Integer> func = new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return 1;
+            }
+        };
+        
+        Observable<Integer> source = InvokeTask.start(func, 0, null, scheduler);
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        ts.unsubscribe();
+        
+        scheduler.triggerActions();
+        
+        ts.assertNoValues();
+        ts.assertNoTerminalEvent();
+    }
+    
+    @Test
+    public void testUnsubscribedSubscriberRemoved() {
+        Callable<Integer> func = new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return 1;
+            }
+        };
+        InvokeTask<Integer> task = new InvokeTask<Integer>(func, 0, null);
+        
+        TestSubscriber<Integer> ts1 = new TestSubscriber<Integer>();
+        TestSubscriber<Integer> ts2 = new TestSubscriber<Integer>();
+        Observable.create(task).subscribe(ts1);
+        Observable.create(task).subscribe(ts2);
+        
+        assertEquals(2, task.get().length);
+        
+        ts1.unsubscribe();
+        
+        assertEquals(1, task.get().length);
+        
+        ts2.unsubscribe();
+        
+        assertEquals(0, task.get().length);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedArity() {
+        InvokeTask.start(null, 10, new Object[10], Schedulers.immediate());
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async;
+
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import rx.Observable;
+import rx.functions.Func2;
+import rx.functions.Func9;
+import rx.functions.FuncN;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.util.async.functions.ThrowingFunc2;
+import rx.util.async.operators.TestException;
+
+public class ToAsyncFunctionTest {
+    @Test
+    public void testSameClassForAllArities() {
+        Func2<Integer, Integer, Integer> f2 = new Func2<Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2) {
+                return t1 + t2;
+            }
+        };
+        ThrowingFunc2<Integer, Integer, Integer> tf2 = new ThrowingFunc2<Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2) throws Exception {
+                return t1 + t2;
+            }
+        };
+        FuncN<Integer> fn = new FuncN<Integer>() {
+            @Override
+            public Integer call(Object... args) {
+                return args.length;
+            }
+        };
+        
+        assertSame(ToAsyncFunction.class, Async.toAsync(f2).getClass());
+        assertSame(ToAsyncFunction.class, Async.toAsyncThrowing(tf2).getClass());
+        assertSame(ToAsyncFunction.class, Async.toAsync(fn).getClass());
+    }
+    
+    @Test
+    public void testFunc9() {
+        Func9<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer> func = 
+                new Func9<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>() {
+            @Override
+            public Integer call(Integer t1, Integer t2, Integer t3, Integer t4, Integer t5, Integer t6, Integer t7, 
+                    Integer t8, Integer t9) {
+                return t1 + t2 + t3 + t4 + t5 + t6 + t7 + t8 + t9;
+            }
+        };
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        Async.toAsync(func, Schedulers.immediate()).call(1, 2, 3, 4, 5, 6, 7, 8, 9).subscribe(ts);
+        
+        ts.assertValue(45);
+        ts.assertCompleted();
+    }
+    
+    @Test
+    public void testFuncNThrows() {
+        FuncN<Integer> func = new FuncN<Integer>() {
+            @Override
+            public Integer call(Object... args) {
+                throw new TestException();
+            }
+        };
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        Observable<Integer> result = ToAsyncFunction.<FuncN<Observable<Integer>>>create(func, 
+                InvokeTask.ARITY_N, Schedulers.immediate()).call(1, 2);
+        result.subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertError(TestException.class);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedArity() {
+        ToAsyncFunction.create(null, 10, Schedulers.immediate());
+    }
+}
@@ -15,6 +15,8 @@
  */
 package rx.util.async.operators;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.inOrder;
@@ -26,15 +28,22 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.Arrays;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import org.mockito.InOrder;
 
 import rx.Observable;
 import rx.Observer;
+import rx.Scheduler;
+import rx.Subscription;
 import rx.functions.Func0;
+import rx.observers.TestSubscriber;
 import rx.schedulers.Schedulers;
 import rx.util.async.Async;
 
@@ -105,4 +114,127 @@ public class OperatorDeferFutureTest {
         verify(observer, never()).onCompleted();
         verify(observer).onError(any(TestException.class));
     }
-}
\ No newline at end of file
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUnsubscribeCancelsFuture() throws InterruptedException {
+        final OperatorStartFutureTest.CancelRecordingFuture<Observable<Integer>> future = 
+                new OperatorStartFutureTest.CancelRecordingFuture<Observable<Integer>>();
+        Func0<Future<Observable<Integer>>> func = new Func0<Future<Observable<Integer>>>() {
+            @Override
+            public Future<Observable<Integer>> call() {
+                return future;
+            }
+        };
+        
+        Observable<Integer> result = Async.deferFuture(func, true, Schedulers.newThread());
+        
+        final Observer<Object> observer = mock(Observer.class);
+        Subscription s = result.subscribe(observer);
+        
+        s.unsubscribe();
+        
+        assertTrue("Not cancelled in time!", future.cancelled.await(1000, TimeUnit.MILLISECONDS));
+        assertTrue(future.isCancelled());
+        assertEquals(true, future.mayInterruptIfRunning);
+        
+        verify(observer, never()).onNext(any());
+        verify(observer, never()).onCompleted();
+        verify(observer, never()).onError(any(Throwable.class));
+    }
+    
+    @Test
+    public void testBackpressureIsPassedThrough() throws InterruptedException {
+        final FutureTask<Observable<Integer>> future = new FutureTask<Observable<Integer>>(new Callable<Observable<Integer>>() {
+            @Override
+            public Observable<Integer> call() throws Exception {
+                return Observable.range(1, 10);
+            }
+        });
+        Func0<Future<Observable<Integer>>> func = new Func0<Future<Observable<Integer>>>() {
+            @Override
+            public Future<Observable<Integer>> call() {
+                return future;
+            }
+        };
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(2L);
+        
+        Async.deferFuture(func, Schedulers.newThread()).subscribe(ts);
+        
+        future.run();
+        
+        Thread.sleep(100);
+        
+        ts.assertReceivedOnNext(Arrays.asList(1, 2));
+        ts.assertNoTerminalEvent();
+        
+        ts.requestMore(8);
+        
+        ts.awaitTerminalEvent(1000, TimeUnit.MILLISECONDS);
+        ts.assertReceivedOnNext(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+        ts.assertTerminalEvent();
+        ts.assertNoErrors();
+    }
+    
+    @Test
+    public void testTimeout() {
+        final OperatorStartFutureTest.CancelRecordingFuture<Observable<Integer>> future = 
+                new OperatorStartFutureTest.CancelRecordingFuture<Observable<Integer>>();
+        Func0<Future<Observable<Integer>>> func = new Func0<Future<Observable<Integer>>>() {
+            @Override
+            public Future<Observable<Integer>> call() {
+                return future;
+            }
+        };
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Async.deferFuture(func, 100, TimeUnit.MILLISECONDS, Schedulers.newThread()).subscribe(ts);
+        
+        ts.awaitTerminalEvent(1000, TimeUnit.MILLISECONDS);
+        ts.assertError(TimeoutException.class);
+        ts.assertNoValues();
+        assertTrue(future.isCancelled());
+    }
+    
+    @Test
+    public void testCallableObservableOnSameSchedulerIsInvokedDirectly() throws Exception {
+        final AtomicInteger workers = new AtomicInteger();
+        final Scheduler scheduler = new Scheduler() {
+            @Override
+            public Worker createWorker() {
+                workers.incrementAndGet();
+                return Schedulers.trampoline().createWorker();
+            }
+        };
+        final FutureTask<Observable<Integer>> future = new FutureTask<Observable<Integer>>(new Callable<Observable<Integer>>() {
+            @Override
+            public Observable<Integer> call() throws Exception {
+                return Async.fromCallable(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        return 1;
+                    }
+                }, scheduler);
+            }
+        });
+        future.run();
+        Func0<Future<Observable<Integer>>> func = new Func0<Future<Observable<Integer>>>() {
+            @Override
+            public Future<Observable<Integer>> call() {
+                return future;
+            }
+        };
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Async.deferFuture(func, scheduler).subscribe(ts);
+        
+        ts.assertReceivedOnNext(Arrays.asList(1));
+        ts.assertTerminalEvent();
+        ts.assertNoErrors();
+        // only the worker awaiting the Future
+        assertEquals(1, workers.get());
+    }
+}
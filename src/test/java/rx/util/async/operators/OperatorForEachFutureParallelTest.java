@@ -0,0 +1,186 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+import rx.util.async.Async;
+
+public class OperatorForEachFutureParallelTest {
+    static final Func1<Integer, Integer> MOD_10 = new Func1<Integer, Integer>() {
+        @Override
+        public Integer call(Integer t1) {
+            return t1 % 10;
+        }
+    };
+    
+    @Test
+    public void testKeepsOrderPerKey() throws Exception {
+        final List<List<Integer>> perKey = new ArrayList<List<Integer>>();
+        for (int i = 0; i < 10; i++) {
+            perKey.add(new ArrayList<Integer>());
+        }
+        final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        
+        Future<Void> f = Async.forEachFutureParallel(Observable.range(0, 10000), new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+                threads.add(Thread.currentThread());
+                List<Integer> list = perKey.get(t1 % 10);
+                // a key is always handled by the same worker
+                synchronized (list) {
+                    list.add(t1);
+                }
+            }
+        }, 4, MOD_10, Schedulers.computation());
+        
+        assertEquals(null, f.get(5000, TimeUnit.MILLISECONDS));
+        
+        for (int k = 0; k < 10; k++) {
+            List<Integer> list = perKey.get(k);
+            synchronized (list) {
+                assertEquals(1000, list.size());
+                for (int i = 0; i < 1000; i++) {
+                    assertEquals((Integer)(i * 10 + k), list.get(i));
+                }
+            }
+        }
+        assertTrue(threads.size() > 1 || Runtime.getRuntime().availableProcessors() == 1);
+    }
+    
+    @Test
+    public void testBackpressuresSource() throws Exception {
+        final AtomicLong requested = new AtomicLong();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger count = new AtomicInteger();
+        Observable<Integer> source = Observable.range(0, 1000).doOnRequest(new Action1<Long>() {
+            @Override
+            public void call(Long t1) {
+                requested.addAndGet(t1);
+            }
+        }).subscribeOn(Schedulers.computation());
+        
+        Future<Void> f = Async.forEachFutureParallel(source, new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+                count.incrementAndGet();
+            }
+        }, 2, MOD_10, Schedulers.computation());
+        
+        Thread.sleep(100);
+        
+        assertEquals(LatchedObserver.DEFAULT_PREFETCH, requested.get());
+        assertFalse(f.isDone());
+        
+        release.countDown();
+        
+        f.get(5000, TimeUnit.MILLISECONDS);
+        assertEquals(1000, count.get());
+    }
+    
+    @Test
+    public void testActionThrows() throws Exception {
+        PublishSubject<Integer> source = PublishSubject.create();
+        
+        Future<Void> f = Async.forEachFutureParallel(source, new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+                throw new TestException();
+            }
+        }, 2, MOD_10, Schedulers.computation());
+        
+        source.onNext(1);
+        
+        try {
+            f.get(1000, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof TestException);
+        }
+        assertFalse(source.hasObservers());
+    }
+    
+    @Test
+    public void testSourceError() throws Exception {
+        Future<Void> f = Async.forEachFutureParallel(Observable.<Integer>error(new TestException()), 
+                new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+            }
+        }, 2, MOD_10, Schedulers.computation());
+        
+        try {
+            f.get(1000, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof TestException);
+        }
+    }
+    
+    @Test
+    public void testCancelUnsubscribes() {
+        PublishSubject<Integer> source = PublishSubject.create();
+        
+        Future<Void> f = Async.forEachFutureParallel(source, new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+            }
+        }, 2, MOD_10, Schedulers.computation());
+        
+        assertTrue(source.hasObservers());
+        
+        f.cancel(true);
+        
+        assertFalse(source.hasObservers());
+        assertTrue(f.isCancelled());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        Async.forEachFutureParallel(Observable.just(1), new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+            }
+        }, 0, MOD_10, Schedulers.computation());
+    }
+}
@@ -31,22 +31,40 @@
 package rx.util.async.operators;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Test;
 
 import rx.Observable;
 import rx.functions.Action1;
+import rx.functions.Func1;
 import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
 import rx.util.async.Async;
+import rx.util.async.functions.DoubleAction1;
+import rx.util.async.functions.IndexedAction1;
+import rx.util.async.functions.IntAction1;
+import rx.util.async.functions.LongAction1;
 
 public class OperatorForEachFutureTest {
     @Test
@@ -184,4 +202,509 @@ public class OperatorForEachFutureTest {
         
         assertEquals(0, sum.get());
     }
+    
+    static final Action1<Integer> IGNORE = new Action1<Integer>() {
+        @Override
+        public void call(Integer t1) {
+        }
+    };
+    
+    @Test
+    public void testLatchedObserverReleasesAllWaiters() throws Exception {
+        final LatchedObserver<Integer> lo = LatchedObserver.create(IGNORE);
+        final CountDownLatch released = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        lo.await();
+                        released.countDown();
+                    } catch (InterruptedException ex) {
+                        // the test fails by timing out
+                    }
+                }
+            }).start();
+        }
+        
+        assertFalse(released.await(50, TimeUnit.MILLISECONDS));
+        
+        TestException error = new TestException();
+        lo.onError(error);
+        
+        assertTrue(released.await(1000, TimeUnit.MILLISECONDS));
+        assertSame(error, lo.getThrowable());
+    }
+    
+    @Test
+    public void testLatchedObserverTimedAwait() throws Exception {
+        LatchedObserver<Integer> lo = LatchedObserver.create(IGNORE);
+        
+        assertFalse(lo.await(10, TimeUnit.MILLISECONDS));
+        assertFalse(lo.await(0, TimeUnit.MILLISECONDS));
+        
+        lo.onNext(1);
+        lo.onCompleted();
+        
+        assertTrue(lo.await(0, TimeUnit.MILLISECONDS));
+        assertNull(lo.getThrowable());
+    }
+    
+    @Test
+    public void testLatchedObserverInterruptedAwait() throws Exception {
+        LatchedObserver<Integer> lo = LatchedObserver.create(IGNORE);
+        
+        Thread.currentThread().interrupt();
+        try {
+            lo.await();
+            fail("Should have thrown");
+        } catch (InterruptedException ex) {
+            // expected
+        }
+        
+        lo.onCompleted();
+        lo.await();
+    }
+    
+    @Test
+    public void testLatchedObserverTimedOutWaitersUnlinked() throws Exception {
+        final LatchedObserver<Integer> lo = LatchedObserver.create(IGNORE);
+        
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    lo.await();
+                } catch (InterruptedException ex) {
+                    // ignored
+                }
+            }
+        });
+        waiter.start();
+        while (!(lo.state instanceof LatchedObserver.WaitNode)) {
+            Thread.sleep(1);
+        }
+        
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(lo.await(1, TimeUnit.MICROSECONDS));
+        }
+        
+        int nodes = 0;
+        for (LatchedObserver.WaitNode n = (LatchedObserver.WaitNode)lo.state; n != null; n = n.next) {
+            nodes++;
+        }
+        assertEquals(1, nodes);
+        
+        lo.onCompleted();
+        waiter.join(1000);
+        assertFalse(waiter.isAlive());
+    }
+    
+    @Test
+    public void testRequestsInBatches() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicLong maxRequest = new AtomicLong();
+        Observable<Integer> source = Observable.range(1, 1000).doOnRequest(new Action1<Long>() {
+            @Override
+            public void call(Long t1) {
+                requests.incrementAndGet();
+                if (t1 > maxRequest.get()) {
+                    maxRequest.set(t1);
+                }
+            }
+        });
+        final AtomicInteger count = new AtomicInteger();
+        
+        FutureTask<Void> task = Async.forEachFuture(source, new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+                count.incrementAndGet();
+            }
+        }, Functionals.emptyThrowable(), Functionals.empty(), 16);
+        
+        task.run();
+        task.get(1000, TimeUnit.MILLISECONDS);
+        
+        assertEquals(1000, count.get());
+        assertEquals(16, maxRequest.get());
+        // 16 upfront then 12 after every 12 items
+        assertEquals(1 + 1000 / 12, requests.get());
+    }
+    
+    @Test
+    public void testBackpressuredSourceIsBounded() throws Exception {
+        final AtomicLong outstanding = new AtomicLong();
+        final AtomicLong maxOutstanding = new AtomicLong();
+        Observable<Integer> source = Observable.range(1, 100000)
+                .doOnRequest(new Action1<Long>() {
+                    @Override
+                    public void call(Long t1) {
+                        long o = outstanding.addAndGet(t1);
+                        if (o > maxOutstanding.get()) {
+                            maxOutstanding.set(o);
+                        }
+                    }
+                })
+                .doOnNext(new Action1<Integer>() {
+                    @Override
+                    public void call(Integer t1) {
+                        outstanding.decrementAndGet();
+                    }
+                })
+                .subscribeOn(Schedulers.computation());
+        
+        FutureTask<Void> task = Async.forEachFuture(source, IGNORE);
+        
+        task.run();
+        task.get(5000, TimeUnit.MILLISECONDS);
+        
+        assertTrue("" + maxOutstanding.get(), maxOutstanding.get() <= LatchedObserver.DEFAULT_PREFETCH);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPrefetch() {
+        Async.forEachFuture(Observable.just(1), IGNORE, Functionals.emptyThrowable(), Functionals.empty(), 0);
+    }
+    
+    static Action1<List<Integer>> collectChunks(final List<List<Integer>> chunks) {
+        return new Action1<List<Integer>>() {
+            @Override
+            public void call(List<Integer> t1) {
+                chunks.add(new ArrayList<Integer>(t1));
+            }
+        };
+    }
+    
+    @Test
+    public void testBatchBySize() throws Exception {
+        List<List<Integer>> chunks = new ArrayList<List<Integer>>();
+        
+        FutureTask<Void> task = Async.forEachBatchFuture(Observable.range(1, 10), 3, 1, TimeUnit.DAYS, collectChunks(chunks));
+        
+        task.run();
+        task.get(1000, TimeUnit.MILLISECONDS);
+        
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6), Arrays.asList(7, 8, 9), Arrays.asList(10)), chunks);
+    }
+    
+    @Test
+    public void testBatchByTime() throws Exception {
+        TestScheduler scheduler = Schedulers.test();
+        PublishSubject<Integer> source = PublishSubject.create();
+        List<List<Integer>> chunks = new ArrayList<List<Integer>>();
+        
+        FutureTask<Void> task = Async.forEachBatchFuture(source, 3, 100, TimeUnit.MILLISECONDS, collectChunks(chunks), scheduler);
+        
+        source.onNext(1);
+        scheduler.advanceTimeBy(50, TimeUnit.MILLISECONDS);
+        source.onNext(2);
+        
+        assertEquals(0, chunks.size());
+        
+        scheduler.advanceTimeBy(50, TimeUnit.MILLISECONDS);
+        
+        assertEquals(Arrays.asList(Arrays.asList(1, 2)), chunks);
+        
+        source.onNext(3);
+        source.onNext(4);
+        source.onNext(5);
+        
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4, 5)), chunks);
+        
+        // the timeout of the chunk emitted by size is ignored
+        source.onNext(6);
+        scheduler.advanceTimeBy(99, TimeUnit.MILLISECONDS);
+        
+        assertEquals(2, chunks.size());
+        
+        source.onCompleted();
+        
+        task.run();
+        task.get(1000, TimeUnit.MILLISECONDS);
+        
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4, 5), Arrays.asList(6)), chunks);
+    }
+    
+    @Test
+    public void testBatchTimedFlushFailureRacingCompletion() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final LatchedObserver<Integer> lo = LatchedObserver.createBatch(10, 10, TimeUnit.MILLISECONDS, 
+                new Action1<List<Integer>>() {
+            @Override
+            public void call(List<Integer> t1) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    // ignored
+                }
+                throw new TestException();
+            }
+        }, Schedulers.newThread());
+        
+        lo.onNext(1);
+        
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        
+        Thread completer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                lo.onCompleted();
+            }
+        });
+        completer.start();
+        while (!lo.done) {
+            Thread.sleep(1);
+        }
+        
+        release.countDown();
+        completer.join(5000);
+        
+        assertTrue(lo.await(5, TimeUnit.SECONDS));
+        assertTrue("" + lo.getThrowable(), lo.getThrowable() instanceof TestException);
+    }
+    
+    @Test
+    public void testBatchActionThrows() throws Exception {
+        PublishSubject<Integer> source = PublishSubject.create();
+        
+        FutureTask<Void> task = Async.forEachBatchFuture(source, 2, 1, TimeUnit.DAYS, new Action1<List<Integer>>() {
+            @Override
+            public void call(List<Integer> t1) {
+                throw new TestException();
+            }
+        });
+        
+        source.onNext(1);
+        source.onNext(2);
+        
+        assertFalse(source.hasObservers());
+        
+        task.run();
+        try {
+            task.get(1000, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof TestException);
+        }
+    }
+    
+    @Test
+    public void testProgress() throws Exception {
+        PublishSubject<String> source = PublishSubject.create();
+        
+        ForEachFutureTask task = Async.forEachFuture(source, new Action1<String>() {
+            @Override
+            public void call(String t1) {
+            }
+        }, Functionals.emptyThrowable(), Functionals.empty(), new Func1<String, Long>() {
+            @Override
+            public Long call(String t1) {
+                return (long)t1.length();
+            }
+        });
+        
+        assertEquals(0, task.getItemCount());
+        assertEquals(0, task.getWeight());
+        
+        source.onNext("a");
+        source.onNext("bcd");
+        
+        assertEquals(2, task.getItemCount());
+        assertEquals(4, task.getWeight());
+        assertTrue(task.getIdleTime(TimeUnit.SECONDS) < 1);
+        
+        Thread.sleep(50);
+        
+        assertTrue(task.getIdleTime(TimeUnit.MILLISECONDS) >= 50);
+        
+        source.onCompleted();
+        task.run();
+        task.get(1000, TimeUnit.MILLISECONDS);
+    }
+    
+    @Test
+    public void testProgressRateDecays() throws Exception {
+        PublishSubject<Integer> source = PublishSubject.create();
+        
+        ForEachFutureTask task = Async.forEachFutureWithProgress(source, IGNORE);
+        
+        for (int i = 0; i < 100; i++) {
+            source.onNext(i);
+        }
+        
+        Thread.sleep(1100);
+        
+        // the window started at the subscription so the items are averaged over its length
+        double rate = task.getRate();
+        assertTrue("" + rate, rate > 0 && rate <= 100);
+        
+        source.onNext(100);
+        
+        Thread.sleep(1100);
+        
+        assertTrue(task.getRate() < rate);
+        assertEquals(101, task.getItemCount());
+    }
+    
+    @Test
+    public void testProgressSamplesClock() throws Exception {
+        PublishSubject<Integer> source = PublishSubject.create();
+        
+        ForEachFutureTask task = Async.forEachFutureWithProgress(source, IGNORE, Functionals.emptyThrowable(), Functionals.empty());
+        
+        for (int i = 0; i < 64; i++) {
+            source.onNext(i);
+        }
+        long sampled = task.progress.lastNanos;
+        
+        source.onNext(64);
+        
+        assertEquals(sampled, task.progress.lastNanos);
+        assertEquals(65, task.getItemCount());
+        
+        source.onCompleted();
+        task.run();
+        task.get(1000, TimeUnit.MILLISECONDS);
+    }
+    
+    @Test
+    public void testWeigherThrows() throws Exception {
+        PublishSubject<Integer> source = PublishSubject.create();
+        
+        ForEachFutureTask task = Async.forEachFuture(source, IGNORE, Functionals.emptyThrowable(), Functionals.empty(), 
+                new Func1<Integer, Long>() {
+            @Override
+            public Long call(Integer t1) {
+                throw new TestException();
+            }
+        });
+        
+        source.onNext(1);
+        
+        assertFalse(source.hasObservers());
+        assertEquals(0, task.getItemCount());
+        
+        task.run();
+        try {
+            task.get(1000, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof TestException);
+        }
+    }
+    
+    @Test
+    public void testScheduledDoesNotParkWorker() throws Exception {
+        ThreadPoolExecutor exec = new ThreadPoolExecutor(1, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<Runnable>());
+        try {
+            PublishSubject<Integer> source = PublishSubject.create();
+            final AtomicInteger sum = new AtomicInteger();
+            final AtomicInteger onPool = new AtomicInteger();
+            final Thread current = Thread.currentThread();
+            
+            FutureTask<Void> task = Async.forEachFuture(source, new Action1<Integer>() {
+                @Override
+                public void call(Integer t1) {
+                    sum.addAndGet(t1);
+                    if (Thread.currentThread() != current) {
+                        onPool.incrementAndGet();
+                    }
+                }
+            }, Schedulers.from(exec));
+            
+            for (int i = 1; i <= 3; i++) {
+                source.onNext(i);
+                Thread.sleep(50);
+                // the worker thread is released between the items
+                assertEquals(0, exec.getActiveCount());
+            }
+            
+            assertFalse(task.isDone());
+            
+            source.onCompleted();
+            
+            // completed by the terminal event without running the task
+            task.get(1000, TimeUnit.MILLISECONDS);
+            
+            assertEquals(6, sum.get());
+            assertEquals(3, onPool.get());
+        } finally {
+            exec.shutdown();
+        }
+    }
+    
+    @Test
+    public void testIndexed() throws Exception {
+        final List<Long> indexes = new ArrayList<Long>();
+        final List<String> values = new ArrayList<String>();
+        
+        FutureTask<Void> task = Async.forEachFutureIndexed(Observable.just("a", "b", "c"), new IndexedAction1<String>() {
+            @Override
+            public void call(String t, long index) {
+                values.add(t);
+                indexes.add(index);
+            }
+        });
+        
+        task.run();
+        task.get(1000, TimeUnit.MILLISECONDS);
+        
+        assertEquals(Arrays.asList("a", "b", "c"), values);
+        assertEquals(Arrays.asList(0L, 1L, 2L), indexes);
+    }
+    
+    @Test
+    public void testPrimitive() throws Exception {
+        final long[] sums = new long[2];
+        final double[] dsum = new double[1];
+        
+        FutureTask<Void> t1 = Async.forEachInt(Observable.just(1, 2, 3), new IntAction1() {
+            @Override
+            public void call(int t) {
+                sums[0] += t;
+            }
+        });
+        FutureTask<Void> t2 = Async.forEachLong(Observable.just(1L << 40, 1L), new LongAction1() {
+            @Override
+            public void call(long t) {
+                sums[1] += t;
+            }
+        });
+        FutureTask<Void> t3 = Async.forEachDouble(Observable.just(0.5, 0.25), new DoubleAction1() {
+            @Override
+            public void call(double t) {
+                dsum[0] += t;
+            }
+        });
+        
+        t1.run();
+        t2.run();
+        t3.run();
+        t1.get(1000, TimeUnit.MILLISECONDS);
+        t2.get(1000, TimeUnit.MILLISECONDS);
+        t3.get(1000, TimeUnit.MILLISECONDS);
+        
+        assertEquals(6L, sums[0]);
+        assertEquals((1L << 40) + 1L, sums[1]);
+        assertEquals(0.75, dsum[0], 0.0);
+    }
+    
+    @Test
+    public void testPrimitiveNullValue() throws Exception {
+        FutureTask<Void> task = Async.forEachInt(Observable.just(1, null), new IntAction1() {
+            @Override
+            public void call(int t) {
+            }
+        });
+        
+        task.run();
+        try {
+            task.get(1000, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof NullPointerException);
+        }
+    }
 }
@@ -24,6 +24,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -37,7 +38,10 @@ import org.mockito.InOrder;
 import rx.Observable;
 import rx.Observer;
 import rx.functions.Action0;
+import rx.functions.Func1;
 import rx.observers.TestObserver;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
 import rx.schedulers.TestScheduler;
 import rx.util.async.Async;
 
@@ -209,4 +213,222 @@ public class OperatorFromFunctionalsTest {
         
         testRunShouldThrow(source, IOException.class);
     }
+    
+    @Test
+    public void testFromCallableIsCallableObservable() throws Exception {
+        Callable<Integer> func = new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return 1;
+            }
+        };
+        
+        Observable<Integer> source = Async.fromCallable(func, scheduler);
+        
+        Assert.assertTrue(source instanceof CallableObservable);
+        Assert.assertSame(func, ((CallableObservable<Integer>)source).getCallable());
+        Assert.assertSame(scheduler, ((CallableObservable<Integer>)source).getScheduler());
+    }
+    
+    @Test
+    public void testFromCallableImmediateRunsOnSubscribingThread() {
+        final Thread current = Thread.currentThread();
+        final AtomicInteger calls = new AtomicInteger();
+        Observable<Integer> source = Async.fromCallable(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                if (Thread.currentThread() == current) {
+                    calls.incrementAndGet();
+                }
+                return 1;
+            }
+        }, Schedulers.immediate());
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        
+        ts.assertReceivedOnNext(Arrays.asList(1));
+        ts.assertTerminalEvent();
+        Assert.assertEquals(1, calls.get());
+    }
+    
+    @Test
+    public void testFromCallableWaitsForRequest() {
+        final AtomicInteger calls = new AtomicInteger();
+        Observable<Integer> source = Async.fromCallable(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return calls.incrementAndGet();
+            }
+        }, scheduler);
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(0L);
+        source.subscribe(ts);
+        
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        
+        Assert.assertEquals(0, calls.get());
+        ts.assertNoValues();
+        
+        ts.requestMore(1);
+        ts.requestMore(1);
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        
+        Assert.assertEquals(1, calls.get());
+        ts.assertReceivedOnNext(Arrays.asList(1));
+        ts.assertTerminalEvent();
+    }
+    
+    @Test
+    public void testFromCallableSkippedWhenUnsubscribed() {
+        final AtomicInteger calls = new AtomicInteger();
+        Observable<Integer> source = Async.fromCallable(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return calls.incrementAndGet();
+            }
+        }, scheduler);
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        ts.unsubscribe();
+        
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        
+        Assert.assertEquals(0, calls.get());
+        ts.assertNoValues();
+    }
+    
+    @Test
+    public void testFromCallableWithObserveOn() {
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable.merge(Observable.range(0, 1000).map(new Func1<Integer, Observable<Integer>>() {
+            @Override
+            public Observable<Integer> call(final Integer t1) {
+                return Async.fromCallable(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        return t1;
+                    }
+                }, Schedulers.computation());
+            }
+        })).observeOn(Schedulers.newThread()).subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertNoErrors();
+        Assert.assertEquals(1000, ts.getOnNextEvents().size());
+    }
+    
+    static Callable<Integer> counting(final AtomicInteger calls) {
+        return new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return calls.incrementAndGet();
+            }
+        };
+    }
+    
+    @Test
+    public void testFromCallableCached() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Observable<Integer> source = Async.fromCallableCached(counting(calls), 50, TimeUnit.MILLISECONDS, Schedulers.immediate());
+        
+        for (int i = 0; i < 3; i++) {
+            TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+            source.subscribe(ts);
+            ts.assertReceivedOnNext(Arrays.asList(1));
+            ts.assertTerminalEvent();
+        }
+        
+        Thread.sleep(100);
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        ts.assertReceivedOnNext(Arrays.asList(2));
+        Assert.assertEquals(2, calls.get());
+    }
+    
+    @Test
+    public void testFromCallableCachedSharesInvocation() {
+        AtomicInteger calls = new AtomicInteger();
+        Observable<Integer> source = Async.fromCallableCached(counting(calls), 1, TimeUnit.DAYS, scheduler);
+        
+        TestSubscriber<Integer> ts1 = new TestSubscriber<Integer>();
+        TestSubscriber<Integer> ts2 = new TestSubscriber<Integer>(0L);
+        source.subscribe(ts1);
+        source.subscribe(ts2);
+        
+        ts1.assertNoValues();
+        
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        
+        ts1.assertReceivedOnNext(Arrays.asList(1));
+        ts2.assertNoValues();
+        
+        ts2.requestMore(1);
+        
+        ts2.assertReceivedOnNext(Arrays.asList(1));
+        ts2.assertTerminalEvent();
+        Assert.assertEquals(1, calls.get());
+    }
+    
+    @Test
+    public void testFromCallableCachedErrorIsNotCached() {
+        final AtomicInteger calls = new AtomicInteger();
+        Observable<Integer> source = Async.fromCallableCached(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IOException();
+                }
+                return calls.get();
+            }
+        }, 1, TimeUnit.DAYS, Schedulers.immediate());
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        ts.assertError(IOException.class);
+        
+        ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        ts.assertReceivedOnNext(Arrays.asList(2));
+        
+        ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        ts.assertReceivedOnNext(Arrays.asList(2));
+        Assert.assertEquals(2, calls.get());
+    }
+    
+    @Test
+    public void testFromCallableCachedRefreshAhead() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Observable<Integer> source = Async.fromCallableCached(counting(calls), 1000, 900, TimeUnit.MILLISECONDS, scheduler);
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        ts.assertReceivedOnNext(Arrays.asList(1));
+        
+        Thread.sleep(150);
+        
+        // served from the cache while the refresh is scheduled
+        ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        ts.assertReceivedOnNext(Arrays.asList(1));
+        
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(2, calls.get());
+        
+        ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        ts.assertReceivedOnNext(Arrays.asList(2));
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        Assert.assertEquals(2, calls.get());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromCallableCachedInvalidRefresh() {
+        Async.fromCallableCached(counting(new AtomicInteger()), 1, 1, TimeUnit.SECONDS, scheduler);
+    }
 }
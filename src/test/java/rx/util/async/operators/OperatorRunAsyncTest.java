@@ -0,0 +1,1112 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import rx.Observer;
+import rx.Subscription;
+import rx.exceptions.MissingBackpressureException;
+import rx.functions.Action0;
+import rx.functions.Action2;
+import rx.functions.Action3;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.subscriptions.Subscriptions;
+import rx.util.async.Async;
+import rx.util.async.StoppableObservable;
+
+public class OperatorRunAsyncTest {
+    /** Emits the values from 0 to count - 1 and completes. */
+    static Action2<AsyncEmitter<Integer>, Subscription> range(final int count) {
+        return new Action2<AsyncEmitter<Integer>, Subscription>() {
+            @Override
+            public void call(AsyncEmitter<Integer> t1, Subscription t2) {
+                for (int i = 0; i < count; i++) {
+                    t1.onNext(i);
+                }
+                t1.onCompleted();
+            }
+        };
+    }
+    
+    @Test
+    public void testPacedByRequested() {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicLong requested = new AtomicLong(-1);
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.ERROR, 
+                new Action2<AsyncEmitter<Integer>, Subscription>() {
+            @Override
+            public void call(AsyncEmitter<Integer> t1, Subscription t2) {
+                long r = t1.requested();
+                requested.set(r);
+                for (int i = 0; i < r; i++) {
+                    t1.onNext(i);
+                }
+                t1.onCompleted();
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(5);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        assertEquals(5, requested.get());
+        ts.assertValues(0, 1, 2, 3, 4);
+        ts.assertNoErrors();
+        ts.assertCompleted();
+    }
+    
+    @Test
+    public void testRequestedBoundedByCapacity() {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicLong requested = new AtomicLong(-1);
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.ERROR, 16,
+                new Action2<AsyncEmitter<Integer>, Subscription>() {
+            @Override
+            public void call(AsyncEmitter<Integer> t1, Subscription t2) {
+                requested.set(t1.requested());
+            }
+        });
+        
+        source.subscribe(new TestSubscriber<Integer>());
+        
+        scheduler.triggerActions();
+        
+        assertEquals(16, requested.get());
+    }
+    
+    @Test
+    public void testMinimumDemandOfSubscribers() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.DROP, range(5));
+        
+        TestSubscriber<Integer> ts1 = new TestSubscriber<Integer>(1);
+        TestSubscriber<Integer> ts2 = new TestSubscriber<Integer>(3);
+        source.subscribe(ts1);
+        source.subscribe(ts2);
+        
+        scheduler.triggerActions();
+        
+        ts1.assertValues(0);
+        ts2.assertValues(0);
+        ts1.assertCompleted();
+        ts2.assertCompleted();
+    }
+    
+    @Test
+    public void testDrop() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.DROP, range(10));
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(2);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        ts.assertValues(0, 1);
+        ts.assertNoErrors();
+        ts.assertCompleted();
+    }
+    
+    @Test
+    public void testLatest() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.LATEST, range(10));
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(2);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        ts.assertValues(0, 1);
+        ts.assertNoTerminalEvent();
+        
+        ts.requestMore(1);
+        
+        ts.assertValues(0, 1, 9);
+        ts.assertNoErrors();
+        ts.assertCompleted();
+    }
+    
+    @Test
+    public void testBuffer() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.BUFFER, 4, range(4));
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(1);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        ts.assertValues(0);
+        ts.assertNoTerminalEvent();
+        
+        ts.requestMore(3);
+        
+        ts.assertValues(0, 1, 2, 3);
+        ts.assertNoErrors();
+        ts.assertCompleted();
+    }
+    
+    @Test
+    public void testBufferOverflow() {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.BUFFER, 4, 
+                new Action2<AsyncEmitter<Integer>, Subscription>() {
+            @Override
+            public void call(AsyncEmitter<Integer> t1, Subscription t2) {
+                for (int i = 0; i < 10; i++) {
+                    t1.onNext(i);
+                }
+                stopped.set(t2.isUnsubscribed());
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(1);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        ts.assertValues(0);
+        ts.assertError(MissingBackpressureException.class);
+        assertTrue(stopped.get());
+        assertTrue(source.isUnsubscribed());
+    }
+    
+    @Test
+    public void testError() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.ERROR, range(3));
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(2);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        ts.assertValues(0, 1);
+        ts.assertError(MissingBackpressureException.class);
+    }
+    
+    @Test
+    public void testUnobservedValuesLost() {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicLong requested = new AtomicLong(-1);
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.ERROR, 
+                new Action2<AsyncEmitter<Integer>, Subscription>() {
+            @Override
+            public void call(AsyncEmitter<Integer> t1, Subscription t2) {
+                requested.set(t1.requested());
+                t1.onNext(1);
+                t1.onNext(2);
+                t1.onCompleted();
+            }
+        });
+        
+        scheduler.triggerActions();
+        
+        assertEquals(0, requested.get());
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertNoErrors();
+        ts.assertCompleted();
+    }
+    
+    @Test
+    public void testUnsubscribeRaisesDemand() {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicLong requested = new AtomicLong(-1);
+        
+        final TestSubscriber<Integer> ts1 = new TestSubscriber<Integer>(0);
+        TestSubscriber<Integer> ts2 = new TestSubscriber<Integer>(2);
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.ERROR, 
+                new Action2<AsyncEmitter<Integer>, Subscription>() {
+            @Override
+            public void call(AsyncEmitter<Integer> t1, Subscription t2) {
+                ts1.unsubscribe();
+                requested.set(t1.requested());
+                t1.onNext(1);
+                t1.onNext(2);
+            }
+        });
+        
+        source.subscribe(ts1);
+        source.subscribe(ts2);
+        
+        scheduler.triggerActions();
+        
+        assertEquals(2, requested.get());
+        ts1.assertNoValues();
+        ts2.assertReceivedOnNext(Arrays.asList(1, 2));
+        ts2.assertNoTerminalEvent();
+        assertFalse(source.isUnsubscribed());
+    }
+    
+    @Test
+    public void testParallelMergesShardsInOrder() throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final int n = 10000;
+        
+        StoppableObservable<Integer> source = Async.runAsyncParallel(Schedulers.computation(), 4, 
+                new Action3<Observer<? super Integer>, Subscription, Integer>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2, Integer t3) {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    t1.onError(ex);
+                    return;
+                }
+                for (int i = 0; i < n; i++) {
+                    t1.onNext(t3 * n + i);
+                }
+                t1.onCompleted();
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        start.countDown();
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertNoErrors();
+        ts.assertCompleted();
+        
+        List<Integer> values = ts.getOnNextEvents();
+        assertEquals(4 * n, values.size());
+        int[] next = new int[4];
+        for (Integer v : values) {
+            int shard = v / n;
+            assertEquals(shard * n + next[shard], v.intValue());
+            next[shard]++;
+        }
+    }
+    
+    @Test
+    public void testParallelHonorsRequests() throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final int n = 300;
+        
+        StoppableObservable<Integer> source = Async.runAsyncParallel(Schedulers.computation(), 2, 
+                new Action3<Observer<? super Integer>, Subscription, Integer>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2, Integer t3) {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    t1.onError(ex);
+                    return;
+                }
+                // more than the capacity of a shard queue so the producers have to wait
+                for (int i = 0; i < n; i++) {
+                    t1.onNext(t3 * n + i);
+                }
+                t1.onCompleted();
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(10);
+        source.subscribe(ts);
+        start.countDown();
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (ts.getOnNextEvents().size() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+        
+        assertEquals(10, ts.getOnNextEvents().size());
+        ts.assertNoTerminalEvent();
+        
+        ts.requestMore(Long.MAX_VALUE);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertNoErrors();
+        ts.assertCompleted();
+        assertEquals(2 * n, ts.getOnNextEvents().size());
+    }
+    
+    @Test
+    public void testParallelShardError() throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        
+        StoppableObservable<Integer> source = Async.runAsyncParallel(Schedulers.computation(), 2, 
+                new Action3<Observer<? super Integer>, Subscription, Integer>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2, Integer t3) {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    t1.onError(ex);
+                    return;
+                }
+                if (t3 == 1) {
+                    t1.onError(new TestException());
+                }
+                // shard 0 never completes
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        start.countDown();
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertError(TestException.class);
+        source.unsubscribe();
+    }
+    
+    @Test
+    public void testParallelLateSubscriberGetsTerminalEvent() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsyncParallel(scheduler, 3, 
+                new Action3<Observer<? super Integer>, Subscription, Integer>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2, Integer t3) {
+                t1.onNext(t3);
+                t1.onCompleted();
+            }
+        });
+        
+        scheduler.triggerActions();
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        
+        ts.assertNoValues();
+        ts.assertNoErrors();
+        ts.assertCompleted();
+    }
+    
+    @Test
+    public void testParallelUnsubscribeStopsProducers() {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicLong calls = new AtomicLong();
+        
+        StoppableObservable<Integer> source = Async.runAsyncParallel(scheduler, 3, 
+                new Action3<Observer<? super Integer>, Subscription, Integer>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2, Integer t3) {
+                calls.incrementAndGet();
+            }
+        });
+        
+        source.unsubscribe();
+        scheduler.triggerActions();
+        
+        assertEquals(0, calls.get());
+        assertTrue(source.isUnsubscribed());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelInvalidProducers() {
+        Async.runAsyncParallel(Schedulers.immediate(), 0, 
+                new Action3<Observer<? super Integer>, Subscription, Integer>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2, Integer t3) {
+            }
+        });
+    }
+    
+    @Test
+    public void testStopGracefullyFlushesQueued() throws Exception {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.BUFFER, 
+                new Action2<AsyncEmitter<Integer>, Subscription>() {
+            @Override
+            public void call(AsyncEmitter<Integer> t1, Subscription t2) {
+                for (int i = 0; i < 3; i++) {
+                    t1.onNext(i);
+                }
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(1);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        Future<Void> f = source.stopGracefully(5, TimeUnit.SECONDS);
+        
+        ts.assertValues(0);
+        ts.assertNoTerminalEvent();
+        assertFalse(f.isDone());
+        
+        ts.requestMore(2);
+        
+        ts.assertValues(0, 1, 2);
+        ts.assertCompleted();
+        assertEquals(null, f.get(1, TimeUnit.SECONDS));
+        assertTrue(source.isUnsubscribed());
+        assertTrue(f == source.stopGracefully(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void testStopGracefullyStopsProducerLoop() throws Exception {
+        final CountDownLatch running = new CountDownLatch(1);
+        
+        StoppableObservable<Integer> source = Async.runAsync(Schedulers.newThread(), 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+                int i = 0;
+                while (!t2.isUnsubscribed()) {
+                    t1.onNext(i++);
+                    running.countDown();
+                }
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        
+        source.stopGracefully(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+        
+        ts.assertNoErrors();
+        ts.assertCompleted();
+        // values emitted before the subscription are lost
+        List<Integer> values = ts.getOnNextEvents();
+        for (int i = 1; i < values.size(); i++) {
+            assertEquals(values.get(i - 1) + 1, values.get(i).intValue());
+        }
+    }
+    
+    @Test
+    public void testStopGracefullyBeforeStart() throws Exception {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicLong calls = new AtomicLong();
+        
+        StoppableObservable<Integer> source = Async.runAsyncParallel(scheduler, 2, 
+                new Action3<Observer<? super Integer>, Subscription, Integer>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2, Integer t3) {
+                calls.incrementAndGet();
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        
+        Future<Void> f = source.stopGracefully(5, TimeUnit.SECONDS);
+        
+        assertFalse(f.isDone());
+        
+        scheduler.triggerActions();
+        
+        assertEquals(0, calls.get());
+        ts.assertCompleted();
+        assertEquals(null, f.get(1, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void testStopGracefullyTimeout() throws Exception {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.BUFFER, 
+                new Action2<AsyncEmitter<Integer>, Subscription>() {
+            @Override
+            public void call(AsyncEmitter<Integer> t1, Subscription t2) {
+                t1.onNext(1);
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(0);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        Future<Void> f = source.stopGracefully(50, TimeUnit.MILLISECONDS);
+        
+        try {
+            f.get(5, TimeUnit.SECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof TimeoutException);
+        }
+        assertTrue(source.isUnsubscribed());
+        ts.assertNoTerminalEvent();
+    }
+    
+    @Test
+    public void testUnsubscribeCancelsGracefulStop() throws Exception {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.BUFFER, 
+                new Action2<AsyncEmitter<Integer>, Subscription>() {
+            @Override
+            public void call(AsyncEmitter<Integer> t1, Subscription t2) {
+                t1.onNext(1);
+            }
+        });
+        
+        source.subscribe(new TestSubscriber<Integer>(0));
+        
+        scheduler.triggerActions();
+        
+        Future<Void> f = source.stopGracefully(5, TimeUnit.SECONDS);
+        
+        source.unsubscribe();
+        
+        assertTrue(f.isCancelled());
+        try {
+            f.get();
+            fail("Should have thrown");
+        } catch (CancellationException ex) {
+            // expected
+        }
+    }
+    
+    @Test
+    public void testReplayLastValues() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsyncReplay(scheduler, 3, 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+                for (int i = 0; i < 10; i++) {
+                    t1.onNext(i);
+                }
+                t1.onCompleted();
+            }
+        });
+        
+        TestSubscriber<Integer> early = new TestSubscriber<Integer>();
+        source.subscribe(early);
+        
+        scheduler.triggerActions();
+        
+        TestSubscriber<Integer> late = new TestSubscriber<Integer>();
+        source.subscribe(late);
+        
+        early.assertValues(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        early.assertCompleted();
+        late.assertValues(7, 8, 9);
+        late.assertNoErrors();
+        late.assertCompleted();
+    }
+    
+    @Test
+    public void testReplayBackpressure() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsyncReplay(scheduler, 3, 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+                for (int i = 0; i < 5; i++) {
+                    t1.onNext(i);
+                }
+            }
+        });
+        
+        scheduler.triggerActions();
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(1);
+        source.subscribe(ts);
+        
+        ts.assertValues(2);
+        
+        ts.requestMore(5);
+        
+        ts.assertValues(2, 3, 4);
+        ts.assertNoTerminalEvent();
+    }
+    
+    @Test
+    public void testReplayMaxAge() {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicReference<Observer<? super Integer>> observer = new AtomicReference<Observer<? super Integer>>();
+        
+        StoppableObservable<Integer> source = Async.runAsyncReplay(scheduler, 10, 1, TimeUnit.SECONDS, 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+                observer.set(t1);
+            }
+        });
+        
+        scheduler.triggerActions();
+        
+        observer.get().onNext(1);
+        observer.get().onNext(2);
+        scheduler.advanceTimeBy(2, TimeUnit.SECONDS);
+        observer.get().onNext(3);
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        
+        ts.assertValues(3);
+        
+        observer.get().onNext(4);
+        
+        ts.assertValues(3, 4);
+    }
+    
+    @Test
+    public void testReplayLaggingSubscriberFails() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsyncReplay(scheduler, 2, 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+                for (int i = 0; i < 10; i++) {
+                    t1.onNext(i);
+                }
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(1);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        ts.assertValues(0);
+        ts.assertError(MissingBackpressureException.class);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplayInvalidSize() {
+        Async.runAsyncReplay(Schedulers.immediate(), 0, 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+            }
+        });
+    }
+    
+    @Test
+    public void testReplayLateSubscriberWhileProducing() throws InterruptedException {
+        final CountDownLatch running = new CountDownLatch(1);
+        final int n = 100000;
+        
+        StoppableObservable<Integer> source = Async.runAsyncReplay(Schedulers.newThread(), 16, 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+                for (int i = 0; i < n; i++) {
+                    t1.onNext(i);
+                    if (i == 1000) {
+                        running.countDown();
+                    }
+                }
+                t1.onCompleted();
+            }
+        });
+        
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertNoErrors();
+        ts.assertCompleted();
+        List<Integer> values = ts.getOnNextEvents();
+        assertFalse(values.isEmpty());
+        int first = values.get(0);
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(first + i, values.get(i).intValue());
+        }
+        assertEquals(n - 1, values.get(values.size() - 1).intValue());
+    }
+    
+    /** Emits the given batch and completes. */
+    static Action2<AsyncEmitter<Integer>, Subscription> batch(final Integer... values) {
+        return new Action2<AsyncEmitter<Integer>, Subscription>() {
+            @Override
+            public void call(AsyncEmitter<Integer> t1, Subscription t2) {
+                t1.onNextBatch(values);
+                t1.onCompleted();
+            }
+        };
+    }
+    
+    @Test
+    public void testBatchToAllSubscribers() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.ERROR, batch(1, 2, 3));
+        
+        TestSubscriber<Integer> ts1 = new TestSubscriber<Integer>();
+        TestSubscriber<Integer> ts2 = new TestSubscriber<Integer>(3);
+        source.subscribe(ts1);
+        source.subscribe(ts2);
+        
+        scheduler.triggerActions();
+        
+        ts1.assertValues(1, 2, 3);
+        ts1.assertCompleted();
+        ts2.assertValues(1, 2, 3);
+        ts2.assertCompleted();
+    }
+    
+    @Test
+    public void testBatchDrop() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.DROP, batch(1, 2, 3, 4));
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(2);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        ts.assertValues(1, 2);
+        ts.assertCompleted();
+    }
+    
+    @Test
+    public void testBatchLatest() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.LATEST, batch(1, 2, 3, 4));
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(1);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        ts.assertValues(1);
+        
+        ts.requestMore(1);
+        
+        ts.assertValues(1, 4);
+        ts.assertCompleted();
+    }
+    
+    @Test
+    public void testBatchError() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.ERROR, batch(1, 2, 3));
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(2);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        ts.assertValues(1, 2);
+        ts.assertError(MissingBackpressureException.class);
+        assertTrue(source.isUnsubscribed());
+    }
+    
+    @Test
+    public void testBatchAfterQueuedKeepsOrder() {
+        TestScheduler scheduler = Schedulers.test();
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, OverflowStrategy.BUFFER, 
+                new Action2<AsyncEmitter<Integer>, Subscription>() {
+            @Override
+            public void call(AsyncEmitter<Integer> t1, Subscription t2) {
+                t1.onNext(0);
+                t1.onNext(1);
+                t1.onNextBatch(Arrays.asList(2, 3));
+                t1.onCompleted();
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(1);
+        source.subscribe(ts);
+        
+        scheduler.triggerActions();
+        
+        ts.assertValues(0);
+        
+        ts.requestMore(10);
+        
+        ts.assertValues(0, 1, 2, 3);
+        ts.assertCompleted();
+    }
+    
+    @Test
+    public void testDedicatedThread() throws InterruptedException {
+        final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+        final CountDownLatch stopped = new CountDownLatch(1);
+        
+        StoppableObservable<Integer> source = Async.runAsyncDedicated(
+                OperatorRunAsync.threadFactory("RxDedicatedTest-", Thread.MAX_PRIORITY, true), 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+                thread.set(Thread.currentThread());
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ex) {
+                    stopped.countDown();
+                }
+            }
+        });
+        
+        while (thread.get() == null) {
+            Thread.sleep(1);
+        }
+        
+        Thread t = thread.get();
+        assertTrue(t.getName().startsWith("RxDedicatedTest-"));
+        assertEquals(Thread.MAX_PRIORITY, t.getPriority());
+        assertTrue(t.isDaemon());
+        
+        source.unsubscribe();
+        
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        t.join(5000);
+        assertFalse(t.isAlive());
+    }
+    
+    @Test
+    public void testDedicatedThreadPerProducer() throws InterruptedException {
+        final Thread[] threads = new Thread[3];
+        
+        StoppableObservable<Integer> source = Async.runAsyncDedicated(
+                OperatorRunAsync.threadFactory("RxDedicatedTest-", Thread.NORM_PRIORITY, true), 3, 
+                new Action3<Observer<? super Integer>, Subscription, Integer>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2, Integer t3) {
+                threads[t3] = Thread.currentThread();
+                t1.onCompleted();
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertCompleted();
+        
+        assertTrue(threads[0] != threads[1]);
+        assertTrue(threads[1] != threads[2]);
+        assertTrue(threads[0] != threads[2]);
+        
+        source.unsubscribe();
+        
+        for (Thread t : threads) {
+            t.join(5000);
+            assertFalse(t.isAlive());
+        }
+    }
+    
+    /** Creates non-daemon threads and remembers them. */
+    static final class RecordingThreadFactory implements ThreadFactory {
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+        final ThreadFactory actual = Executors.defaultThreadFactory();
+        
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = actual.newThread(r);
+            threads.add(t);
+            return t;
+        }
+        
+        void assertTerminated(int count) throws InterruptedException {
+            assertEquals(count, threads.size());
+            for (Thread t : threads) {
+                assertFalse(t.isDaemon());
+                t.join(5000);
+                assertFalse(t.isAlive());
+            }
+        }
+    }
+    
+    @Test
+    public void testDedicatedThreadReleasedWhenActionReturns() throws InterruptedException {
+        RecordingThreadFactory factory = new RecordingThreadFactory();
+        
+        StoppableObservable<Integer> source = Async.runAsyncDedicated(factory, 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+                t1.onNext(1);
+                t1.onCompleted();
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertCompleted();
+        
+        factory.assertTerminated(1);
+    }
+    
+    @Test
+    public void testDedicatedThreadsReleasedWhenProducersReturn() throws InterruptedException {
+        RecordingThreadFactory factory = new RecordingThreadFactory();
+        
+        StoppableObservable<Integer> source = Async.runAsyncDedicated(factory, 3, 
+                new Action3<Observer<? super Integer>, Subscription, Integer>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2, Integer t3) {
+                t1.onNext(t3);
+                t1.onCompleted();
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        source.subscribe(ts);
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertCompleted();
+        
+        factory.assertTerminated(3);
+    }
+    
+    @Test
+    public void testOnStopCallback() {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicLong stops = new AtomicLong();
+        final Action0 onStop = new Action0() {
+            @Override
+            public void call() {
+                stops.incrementAndGet();
+            }
+        };
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+                Async.onStop(t2, onStop);
+            }
+        });
+        
+        scheduler.triggerActions();
+        
+        assertEquals(0, stops.get());
+        
+        source.unsubscribe();
+        source.unsubscribe();
+        
+        assertEquals(1, stops.get());
+        
+        source.stopGracefully(1, TimeUnit.SECONDS);
+        
+        assertEquals(1, stops.get());
+    }
+    
+    @Test
+    public void testOnStopCallbackGracefulAndLate() {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicReference<Subscription> token = new AtomicReference<Subscription>();
+        final AtomicLong stops = new AtomicLong();
+        final Action0 onStop = new Action0() {
+            @Override
+            public void call() {
+                stops.incrementAndGet();
+            }
+        };
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+                token.set(t2);
+                Async.onStop(t2, onStop);
+            }
+        });
+        
+        scheduler.triggerActions();
+        
+        source.stopGracefully(1, TimeUnit.SECONDS);
+        
+        assertEquals(1, stops.get());
+        assertTrue(token.get().isUnsubscribed());
+        
+        source.onStop(onStop);
+        
+        assertEquals(2, stops.get());
+    }
+    
+    @Test
+    public void testOnStopCallbackDeregistered() {
+        TestScheduler scheduler = Schedulers.test();
+        final AtomicLong stops = new AtomicLong();
+        final Action0 onStop = new Action0() {
+            @Override
+            public void call() {
+                stops.incrementAndGet();
+            }
+        };
+        
+        StoppableObservable<Integer> source = Async.runAsync(scheduler, 
+                new Action2<Observer<? super Integer>, Subscription>() {
+            @Override
+            public void call(Observer<? super Integer> t1, Subscription t2) {
+                for (int i = 0; i < 1000; i++) {
+                    Async.onStop(t2, onStop).unsubscribe();
+                }
+                Async.onStop(t2, onStop);
+            }
+        });
+        
+        scheduler.triggerActions();
+        
+        Subscription s = source.onStop(onStop);
+        s.unsubscribe();
+        
+        assertTrue(s.isUnsubscribed());
+        assertEquals(0, stops.get());
+        
+        source.unsubscribe();
+        
+        assertEquals(1, stops.get());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testOnStopUnsupportedToken() {
+        Async.onStop(Subscriptions.empty(), Functionals.empty());
+    }
+}
@@ -15,6 +15,8 @@
  */
 package rx.util.async.operators;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.inOrder;
@@ -27,14 +29,20 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import org.mockito.InOrder;
 
 import rx.Observable;
 import rx.Observer;
+import rx.Subscription;
 import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
 import rx.schedulers.Schedulers;
 import rx.util.async.Async;
 
@@ -149,4 +157,229 @@ public class OperatorStartFutureTest {
         verify(observer, never()).onCompleted();
         verify(observer).onError(any(TestException.class));
     }
+    
+    /**
+     * A never-run FutureTask which records the interrupt flag of the cancellation.
+     * @param <T> the result type
+     */
+    static final class CancelRecordingFuture<T> extends FutureTask<T> {
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        volatile boolean mayInterruptIfRunning;
+        public CancelRecordingFuture() {
+            super(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    return null;
+                }
+            });
+        }
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            this.mayInterruptIfRunning = mayInterruptIfRunning;
+            boolean result = super.cancel(mayInterruptIfRunning);
+            cancelled.countDown();
+            return result;
+        }
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUnsubscribeCancelsFuture() throws InterruptedException {
+        final CancelRecordingFuture<Integer> future = new CancelRecordingFuture<Integer>();
+        Func0<Future<Integer>> func = new Func0<Future<Integer>>() {
+            @Override
+            public Future<Integer> call() {
+                return future;
+            }
+        };
+        
+        Observable<Integer> result = Async.startFuture(func, false, Schedulers.newThread());
+        
+        final Observer<Object> observer = mock(Observer.class);
+        Subscription s = result.subscribe(observer);
+        
+        s.unsubscribe();
+        
+        assertTrue("Not cancelled in time!", future.cancelled.await(1000, TimeUnit.MILLISECONDS));
+        assertTrue(future.isCancelled());
+        assertEquals(false, future.mayInterruptIfRunning);
+        
+        verify(observer, never()).onNext(any());
+        verify(observer, never()).onCompleted();
+        verify(observer, never()).onError(any(Throwable.class));
+    }
+    
+    @Test
+    public void testTimeout() {
+        final CancelRecordingFuture<Integer> future = new CancelRecordingFuture<Integer>();
+        Func0<Future<Integer>> func = new Func0<Future<Integer>>() {
+            @Override
+            public Future<Integer> call() {
+                return future;
+            }
+        };
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Async.startFuture(func, 100, TimeUnit.MILLISECONDS, Schedulers.newThread()).subscribe(ts);
+        
+        ts.awaitTerminalEvent(1000, TimeUnit.MILLISECONDS);
+        ts.assertError(TimeoutException.class);
+        ts.assertNoValues();
+        assertTrue(future.isCancelled());
+    }
+    
+    @Test
+    public void testTimeoutWithoutCancel() {
+        final CancelRecordingFuture<Integer> future = new CancelRecordingFuture<Integer>();
+        Func0<Future<Integer>> func = new Func0<Future<Integer>>() {
+            @Override
+            public Future<Integer> call() {
+                return future;
+            }
+        };
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Async.startFuture(func, 100, TimeUnit.MILLISECONDS, false, Schedulers.newThread()).subscribe(ts);
+        
+        ts.awaitTerminalEvent(1000, TimeUnit.MILLISECONDS);
+        ts.assertError(TimeoutException.class);
+        
+        future.run();
+        
+        ts.assertNoValues();
+        assertEquals(1, future.cancelled.getCount());
+    }
+    
+    @Test
+    public void testTimeoutReleasesSubscribingThread() {
+        final CancelRecordingFuture<Integer> future = new CancelRecordingFuture<Integer>();
+        Func0<Future<Integer>> func = new Func0<Future<Integer>>() {
+            @Override
+            public Future<Integer> call() {
+                return future;
+            }
+        };
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Observable<Integer> source = OperatorStartFuture.startFuture(func, 100, TimeUnit.MILLISECONDS, false);
+        long start = System.nanoTime();
+        source.subscribe(ts);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        assertTrue("" + elapsed, elapsed < 1000);
+        ts.assertError(TimeoutException.class);
+        ts.assertNoValues();
+        assertEquals(1, future.cancelled.getCount());
+    }
+    
+    @Test
+    public void testCompletesBeforeTimeout() {
+        final CancelRecordingFuture<Integer> future = new CancelRecordingFuture<Integer>();
+        Func0<Future<Integer>> func = new Func0<Future<Integer>>() {
+            @Override
+            public Future<Integer> call() {
+                return future;
+            }
+        };
+        future.run();
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+        
+        Async.startFuture(func, 1, TimeUnit.SECONDS).subscribe(ts);
+        
+        ts.assertValue(null);
+        ts.assertNoErrors();
+        ts.assertTerminalEvent();
+    }
+    
+    @Test
+    public void testStartFuturesLimitsOutstanding() throws InterruptedException {
+        final ExecutorService exec = Executors.newCachedThreadPool();
+        try {
+            final AtomicInteger pending = new AtomicInteger();
+            final AtomicInteger maxPending = new AtomicInteger();
+            
+            Observable<Func0<Future<Integer>>> factories = Observable.range(0, 20).map(new Func1<Integer, Func0<Future<Integer>>>() {
+                @Override
+                public Func0<Future<Integer>> call(final Integer t1) {
+                    return new Func0<Future<Integer>>() {
+                        @Override
+                        public Future<Integer> call() {
+                            int p = pending.incrementAndGet();
+                            for (;;) {
+                                int m = maxPending.get();
+                                if (p <= m || maxPending.compareAndSet(m, p)) {
+                                    break;
+                                }
+                            }
+                            return exec.submit(new Callable<Integer>() {
+                                @Override
+                                public Integer call() throws Exception {
+                                    Thread.sleep(10);
+                                    pending.decrementAndGet();
+                                    return t1;
+                                }
+                            });
+                        }
+                    };
+                }
+            });
+            
+            TestSubscriber<Integer> ts = new TestSubscriber<Integer>();
+            
+            Async.startFutures(factories, 3).subscribe(ts);
+            
+            ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+            ts.assertNoErrors();
+            ts.assertValueCount(20);
+            assertTrue("Too many pending: " + maxPending.get(), maxPending.get() <= 3);
+        } finally {
+            exec.shutdown();
+        }
+    }
+    
+    @Test
+    public void testStartFuturesBackpressure() throws InterruptedException {
+        final AtomicInteger calls = new AtomicInteger();
+        
+        Observable<Func0<Future<Integer>>> factories = Observable.range(0, 100).map(new Func1<Integer, Func0<Future<Integer>>>() {
+            @Override
+            public Func0<Future<Integer>> call(final Integer t1) {
+                return new Func0<Future<Integer>>() {
+                    @Override
+                    public Future<Integer> call() {
+                        calls.incrementAndGet();
+                        FutureTask<Integer> f = new FutureTask<Integer>(new Callable<Integer>() {
+                            @Override
+                            public Integer call() throws Exception {
+                                return t1;
+                            }
+                        });
+                        f.run();
+                        return f;
+                    }
+                };
+            }
+        });
+        
+        TestSubscriber<Integer> ts = new TestSubscriber<Integer>(5L);
+        
+        Async.startFutures(factories, 2, Schedulers.computation()).subscribe(ts);
+        
+        Thread.sleep(200);
+        
+        ts.assertValueCount(5);
+        ts.assertNoTerminalEvent();
+        assertTrue("Too many calls: " + calls.get(), calls.get() <= 5 + 2);
+        
+        ts.requestMore(95);
+        
+        ts.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        ts.assertNoErrors();
+        ts.assertValueCount(100);
+        assertEquals(100, calls.get());
+    }
 }
@@ -0,0 +1,213 @@
+/**
+ * Copyright 2014 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.util.async.operators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import rx.Observable;
+import rx.exceptions.CompositeException;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.schedulers.Schedulers;
+import rx.subjects.PublishSubject;
+import rx.util.async.Async;
+
+public class OperatorToFutureTest {
+    @Test
+    public void testToFuture() throws Exception {
+        Future<Integer> f = Async.toFuture(Observable.just(1, 2, 3).subscribeOn(Schedulers.computation()));
+
+        assertEquals((Integer)3, f.get(1000, TimeUnit.MILLISECONDS));
+        assertTrue(f.isDone());
+        assertFalse(f.isCancelled());
+    }
+
+    @Test
+    public void testToFutureEmpty() throws Exception {
+        Future<Integer> f = Async.toFuture(Observable.<Integer>empty());
+
+        try {
+            f.get(1000, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof NoSuchElementException);
+        }
+    }
+
+    @Test
+    public void testToFutureSingleTooMany() throws Exception {
+        Future<Integer> f = Async.toFutureSingle(Observable.just(1, 2));
+
+        try {
+            f.get(1000, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testToFutureList() throws Exception {
+        Future<List<Integer>> f = Async.toFutureList(Observable.just(1, 2, 3));
+
+        assertEquals(Arrays.asList(1, 2, 3), f.get(1000, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testCancelUnsubscribes() throws Exception {
+        PublishSubject<Integer> source = PublishSubject.create();
+
+        Future<Integer> f = Async.toFuture(source);
+
+        assertTrue(source.hasObservers());
+
+        assertTrue(f.cancel(false));
+
+        assertFalse(source.hasObservers());
+        assertTrue(f.isCancelled());
+        assertTrue(f.isDone());
+        assertFalse(f.cancel(false));
+
+        try {
+            f.get();
+            fail("Should have thrown");
+        } catch (CancellationException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testForEachFutureDirect() throws Exception {
+        final AtomicInteger sum = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+
+        Future<Void> f = Async.forEachFutureDirect(Observable.just(1, 2, 3).subscribeOn(Schedulers.computation()),
+                new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+                sum.addAndGet(t1);
+            }
+        }, Functionals.emptyThrowable(), new Action0() {
+            @Override
+            public void call() {
+                completed.incrementAndGet();
+            }
+        });
+
+        assertEquals(null, f.get(1000, TimeUnit.MILLISECONDS));
+        assertEquals(6, sum.get());
+        assertEquals(1, completed.get());
+    }
+
+    @Test
+    public void testForEachFutureDirectActionThrows() throws Exception {
+        PublishSubject<Integer> source = PublishSubject.create();
+
+        final AtomicInteger errors = new AtomicInteger();
+
+        Future<Void> f = Async.forEachFutureDirect(source, new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+                throw new TestException();
+            }
+        }, new Action1<Throwable>() {
+            @Override
+            public void call(Throwable t1) {
+                errors.incrementAndGet();
+            }
+        });
+
+        source.onNext(1);
+
+        assertFalse(source.hasObservers());
+        assertEquals(1, errors.get());
+        try {
+            f.get(1000, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof TestException);
+        }
+    }
+    
+    @Test
+    public void testToFutureUnsubscribesOnTermination() throws Exception {
+        final AtomicInteger unsubscribed = new AtomicInteger();
+        Observable<Integer> source = Observable.just(1).doOnUnsubscribe(new Action0() {
+            @Override
+            public void call() {
+                unsubscribed.incrementAndGet();
+            }
+        });
+        
+        assertEquals((Integer)1, Async.toFuture(source).get(1000, TimeUnit.MILLISECONDS));
+        assertEquals(1, unsubscribed.get());
+        
+        try {
+            Async.toFuture(Observable.<Integer>error(new TestException()).doOnUnsubscribe(new Action0() {
+                @Override
+                public void call() {
+                    unsubscribed.incrementAndGet();
+                }
+            })).get(1000, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof TestException);
+        }
+        assertEquals(2, unsubscribed.get());
+    }
+    
+    @Test
+    public void testForEachFutureDirectOnErrorThrows() throws Exception {
+        PublishSubject<Integer> source = PublishSubject.create();
+        
+        Future<Void> f = Async.forEachFutureDirect(source, new Action1<Integer>() {
+            @Override
+            public void call(Integer t1) {
+            }
+        }, new Action1<Throwable>() {
+            @Override
+            public void call(Throwable t1) {
+                throw new IllegalStateException();
+            }
+        });
+        
+        source.onError(new TestException());
+        
+        assertFalse(source.hasObservers());
+        try {
+            f.get(1000, TimeUnit.MILLISECONDS);
+            fail("Should have thrown");
+        } catch (ExecutionException ex) {
+            List<Throwable> errors = ((CompositeException)ex.getCause()).getExceptions();
+            assertTrue(errors.get(0) instanceof TestException);
+            assertTrue(errors.get(1) instanceof IllegalStateException);
+        }
+    }
+}